@@ -0,0 +1,73 @@
+package com.u3info.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ A bot turn of `targets` safe squares on a fresh board: one Board.revealAll call against
+ the same squares passed to reveal one at a time. Both end in the same board state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchRevealBenchmark {
+
+    @Param({"64", "512"})
+    int size;
+
+    @Param({"0.05", "0.15"})
+    double density;
+
+    @Param({"16", "256"})
+    int targets;
+
+    private Board board;
+    private IntList squares;
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkBoards.populated(size, density);
+        squares = new IntList(targets);
+        Random rng = new Random(BenchmarkBoards.SEED);
+        while (squares.size() < targets) {
+            int i = rng.nextInt(board.getTotalCells());
+            if (!board.isMine(i)) squares.add(i);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void hide() {
+        board.resetReveals();
+    }
+
+    @Benchmark
+    public Object revealAll() {
+        return board.revealAll(squares);
+    }
+
+    @Benchmark
+    public int oneByOne() {
+        int cols = board.getCols();
+        for (int k = 0; k < squares.size(); k++) {
+            int i = squares.get(k);
+            board.reveal(i / cols, i % cols);
+        }
+        return board.getRevealedCount();
+    }
+}
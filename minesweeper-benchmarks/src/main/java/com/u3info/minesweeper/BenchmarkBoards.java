@@ -0,0 +1,41 @@
+package com.u3info.minesweeper;
+
+import java.util.Random;
+
+//board fixtures shared by the benchmark suites
+final class BenchmarkBoards {
+    static final long SEED = 42L;
+
+    private BenchmarkBoards() {
+    }
+
+    //mine count for a density, clamped to what Board.placeMines accepts
+    static int mines(int size, double density) {
+        int wanted = (int) ((long) size * size * density);
+        return Math.max(1, Math.min(wanted, Board.maxMines(size, size)));
+    }
+
+    static Board populated(int size, double density) {
+        Board board = new Board(size);
+        board.placeMines(mines(size, density), new Random(SEED), MinePlacement.FLOYD);
+        return board;
+    }
+
+    //the adjacency pass the engine used before the packed board: a bounds-checked scan of
+    //all 8 neighbours for every cell. Kept here as the baseline to compare against.
+    static void legacyComputeAdjacents(Board board) {
+        int rows = board.getRows(), cols = board.getCols();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int cnt = 0;
+                for (int rr = Math.max(0, r-1); rr <= Math.min(rows-1, r+1); rr++) {
+                    for (int cc = Math.max(0, c-1); cc <= Math.min(cols-1, c+1); cc++) {
+                        if (rr == r && cc == c) continue;
+                        if (board.isMine(board.index(rr, cc))) cnt++;
+                    }
+                }
+                board.setAdjacent(board.index(r, c), cnt);
+            }
+        }
+    }
+}
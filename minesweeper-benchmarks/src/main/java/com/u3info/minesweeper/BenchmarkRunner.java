@@ -0,0 +1,29 @@
+package com.u3info.minesweeper;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ Entry point of benchmarks.jar.
+
+ Accepts the usual JMH command line (benchmark regex, -p size=512, -f, -wi, ...) and always
+ adds the GC profiler, so every result comes with gc.alloc.rate.norm (bytes per operation).
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+        try {
+            new Runner(options).run();
+        } catch (RunnerException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(1);
+        }
+    }
+}
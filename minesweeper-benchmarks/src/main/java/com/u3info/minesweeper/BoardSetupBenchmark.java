@@ -0,0 +1,82 @@
+package com.u3info.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Cost of getting a board ready to play.
+
+ -construct: allocating the packed board.
+ -setup: construct + placeMines, for every placement strategy and adjacency pass.
+ -adjacency*: recomputing all counts on an already mined board, current pass vs the old scan.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardSetupBenchmark {
+
+    @Param({"8", "64", "512", "4096"})
+    int size;
+
+    @Param({"0.05", "0.15", "0.35"})
+    double density;
+
+    @Param({"REJECTION", "FLOYD"})
+    String placement;
+
+    @Param({"INCREMENTAL", "SLIDING_WINDOW"})
+    String pass;
+
+    private int mines;
+    private MinePlacement placementMode;
+    private AdjacencyPass passMode;
+    private Board mined;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        mines = BenchmarkBoards.mines(size, density);
+        placementMode = MinePlacement.valueOf(placement);
+        passMode = AdjacencyPass.valueOf(pass);
+        mined = BenchmarkBoards.populated(size, density);
+    }
+
+    @Benchmark
+    public Board construct() {
+        return new Board(size);
+    }
+
+    @Benchmark
+    public Board setup() {
+        Board board = new Board(size);
+        board.placeMines(mines, new Random(seed++), placementMode, passMode);
+        return board;
+    }
+
+    @Benchmark
+    public Board adjacencySlidingWindow() {
+        mined.computeAdjacents();
+        return mined;
+    }
+
+    @Benchmark
+    public Board adjacencyLegacyScan() {
+        BenchmarkBoards.legacyComputeAdjacents(mined);
+        return mined;
+    }
+}
@@ -0,0 +1,74 @@
+package com.u3info.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ A bot's pipelined stream of MOVES moves on a 512 x 512 board, parsed by CommandReader and by
+ the old Scanner.next + CoordinateMapper.parse. Results are per move, so gc.alloc.rate.norm
+ is bytes per move (the reader's buffer, made once per stream, is spread over all of them).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandInputBenchmark {
+
+    static final int MOVES = 10000;
+    static final int SIZE = 512;
+
+    private byte[] input;
+
+    @Setup
+    public void setUp() {
+        Random rng = new Random(BenchmarkBoards.SEED);
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < MOVES; k++) {
+            sb.append(CoordinateMapper.rowLabel(rng.nextInt(SIZE))).append(rng.nextInt(SIZE) + 1).append('\n');
+        }
+        input = sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public long commandReader() throws IOException {
+        CommandReader in = new CommandReader(Channels.newChannel(new ByteArrayInputStream(input)));
+        long sum = 0;
+        for (int k = 0; k < MOVES; k++) {
+            in.next(SIZE, SIZE);
+            sum += in.row() * SIZE + in.col();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public long scanner() {
+        Scanner sc = new Scanner(new ByteArrayInputStream(input));
+        long sum = 0;
+        for (int k = 0; k < MOVES; k++) {
+            CoordinateMapper at = CoordinateMapper.parse(sc.next(), SIZE);
+            sum += at.row * SIZE + at.col;
+        }
+        return sum;
+    }
+}
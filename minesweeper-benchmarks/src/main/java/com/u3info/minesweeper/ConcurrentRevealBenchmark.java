@@ -0,0 +1,120 @@
+package com.u3info.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Cooperative clearing of one shared board by `players` threads. One op = every safe square
+ revealed; each player clicks its own shuffled share of the safe squares, and the flood fills
+ they start overlap.
+
+ -casBoard: ConcurrentBoard, squares claimed by compare-and-set.
+ -lockedBoard: a plain Board with every reveal under one lock (the coarse-grained option).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentRevealBenchmark {
+
+    @Param({"1024"})
+    int size;
+
+    @Param({"0.05", "0.15"})
+    double density;
+
+    @Param({"1", "2", "4", "8"})
+    int players;
+
+    private Board template;
+    private int[][] clicks;
+    private ExecutorService pool;
+    private ConcurrentBoard shared;
+    private Board locked;
+
+    @Setup
+    public void setUp() {
+        template = BenchmarkBoards.populated(size, density);
+        locked = BenchmarkBoards.populated(size, density);
+        int safe = template.getTotalCells() - template.getTotalMines();
+        int[] order = new int[safe];
+        int n = 0;
+        for (int i = 0; i < template.getTotalCells(); i++) {
+            if (!template.isMine(i)) order[n++] = i;
+        }
+        Random rng = new Random(BenchmarkBoards.SEED);
+        for (int k = order.length - 1; k > 0; k--) {
+            int j = rng.nextInt(k + 1);
+            int t = order[k];
+            order[k] = order[j];
+            order[j] = t;
+        }
+        clicks = new int[players][];
+        for (int p = 0; p < players; p++) {
+            int from = (int) ((long) safe * p / players), to = (int) ((long) safe * (p + 1) / players);
+            clicks[p] = Arrays.copyOfRange(order, from, to);
+        }
+        pool = Executors.newFixedThreadPool(players);
+    }
+
+    @Setup(Level.Invocation)
+    public void freshBoards() {
+        shared = new ConcurrentBoard(template);
+        locked.resetReveals();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public int casBoard() throws Exception {
+        Future<?>[] done = new Future<?>[players];
+        for (int p = 0; p < players; p++) {
+            final int[] mine = clicks[p];
+            done[p] = pool.submit(() -> {
+                for (int i : mine) shared.reveal(i / size, i % size);
+            });
+        }
+        for (Future<?> f : done) f.get();
+        return shared.getRevealedCount();
+    }
+
+    @Benchmark
+    public int lockedBoard() throws Exception {
+        Future<?>[] done = new Future<?>[players];
+        for (int p = 0; p < players; p++) {
+            final int[] mine = clicks[p];
+            done[p] = pool.submit(() -> {
+                for (int i : mine) {
+                    synchronized (locked) {
+                        locked.reveal(i / size, i % size);
+                    }
+                }
+            });
+        }
+        for (Future<?> f : done) f.get();
+        return locked.getRevealedCount();
+    }
+}
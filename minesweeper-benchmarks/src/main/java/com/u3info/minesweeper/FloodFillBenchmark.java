@@ -0,0 +1,84 @@
+package com.u3info.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ BFS against the bitboard flood fill on the same click: the largest zero region of a sparse
+ board (density 0.01; at 0.05 and up regions are small) and a board without mines, where one
+ click opens everything.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FloodFillBenchmark {
+
+    @Param({"BFS", "BITBOARD"})
+    String engine;
+
+    @Param({"512", "4096"})
+    int size;
+
+    @Param({"0.01", "0.05"})
+    double density;
+
+    private Board mined;
+    private Board empty;
+    private int clickRow;
+    private int clickCol;
+
+    @Setup
+    public void setUp() {
+        FloodFill fill = FloodFill.valueOf(engine);
+        mined = BenchmarkBoards.populated(size, density);
+        mined.setFloodFill(fill);
+        empty = new Board(size);
+        empty.setFloodFill(fill);
+
+        //click the zero whose region is largest, so the fill has the most to do
+        int best = -1;
+        for (int i = 0; i < mined.getTotalCells(); i++) {
+            if (mined.adjacent(i) != 0 || mined.isRevealed(i)) continue;
+            int before = mined.getRevealedCount();
+            mined.reveal(i / size, i % size);
+            int opened = mined.getRevealedCount() - before;
+            if (opened > best) {
+                best = opened;
+                clickRow = i / size;
+                clickCol = i % size;
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void hide() {
+        mined.resetReveals();
+        empty.resetReveals();
+    }
+
+    @Benchmark
+    public Object largestRegion() {
+        return mined.reveal(clickRow, clickCol);
+    }
+
+    @Benchmark
+    public Object floodAllZero() {
+        return empty.reveal(0, 0);
+    }
+}
@@ -0,0 +1,42 @@
+package com.u3info.minesweeper;
+
+import java.io.PrintStream;
+
+//the renderer before frames were buffered: one PrintStream call per square and separator.
+//Kept as the baseline for RendererBenchmark.
+final class LegacyViewRenderer {
+
+    void printBoard(Board board, PrintStream out) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int labelWidth = CoordinateMapper.rowLabel(rows - 1).length();
+        printPadding(out, labelWidth + 1);
+        for (int c = 1; c <= cols; c++) {
+            out.print(c);
+            if (c < cols) out.print(" ");
+        }
+        out.println();
+        for (int r = 0; r < rows; r++) {
+            String label = CoordinateMapper.rowLabel(r);
+            out.print(label);
+            printPadding(out, labelWidth - label.length() + 1);
+            for (int c = 0; c < cols; c++) {
+                Cell cell = board.cell(r, c);
+                if (!cell.isRevealed()) {
+                    out.print("_");
+                } else if (cell.isAMine()) {
+                    out.print("*");
+                } else {
+                    out.print(cell.getAdjacent());
+                }
+                if (c < cols - 1) out.print(" ");
+            }
+            out.println();
+        }
+        out.println();
+    }
+
+    private void printPadding(PrintStream out, int n) {
+        for (int i = 0; i < n; i++) out.print(" ");
+    }
+}
@@ -0,0 +1,88 @@
+package com.u3info.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ The same moves with Metrics off (the default) and on. Metrics.ENABLED is fixed per JVM, so
+ each variant gets its own fork with or without -Dminesweeper.metrics=true.
+
+ -singleReveal*: one numbered square, the case where fixed per-call costs show most.
+ -flood*: one click opening a board without mines.
+ "Off" should match RevealBenchmark; "on" shows the price of the nanoTime calls and
+ histogram updates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MetricsOverheadBenchmark {
+
+    @Param({"512"})
+    int size;
+
+    private Board mined;
+    private int numberedRow;
+    private int numberedCol;
+    private Board empty;
+
+    @Setup
+    public void setUp() {
+        mined = BenchmarkBoards.populated(size, 0.15);
+        numberedRow = -1;
+        for (int i = 0; i < mined.getTotalCells() && numberedRow < 0; i++) {
+            if (mined.adjacent(i) > 0) {
+                numberedRow = i / size;
+                numberedCol = i % size;
+            }
+        }
+        empty = new Board(size);
+    }
+
+    @Setup(Level.Invocation)
+    public void hideEmptyBoard() {
+        empty.resetReveals();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public Object singleRevealOff() {
+        return singleReveal();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dminesweeper.metrics=true")
+    public Object singleRevealOn() {
+        return singleReveal();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public Object floodOff() {
+        return empty.reveal(0, 0);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dminesweeper.metrics=true")
+    public Object floodOn() {
+        return empty.reveal(0, 0);
+    }
+
+    private Object singleReveal() {
+        mined.setRevealed(mined.index(numberedRow, numberedCol), false);
+        return mined.reveal(numberedRow, numberedCol);
+    }
+}
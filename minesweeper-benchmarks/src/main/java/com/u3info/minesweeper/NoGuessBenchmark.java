@@ -0,0 +1,63 @@
+package com.u3info.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Latency of NoGuessGenerator.generate per size and density, first click in the centre.
+ Sample-time mode, so JMH reports the p50/p90/p99/p99.9 of single generations: the tail
+ comes from seeds that need many attempts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoGuessBenchmark {
+
+    @Param({"9", "16", "30", "64"})
+    int size;
+
+    @Param({"0.12", "0.16", "0.20"})
+    double density;
+
+    @Param({"1", "4"})
+    int workers;
+
+    private ExecutorService pool;
+    private NoGuessGenerator generator;
+    private int mines;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        mines = BenchmarkBoards.mines(size, density);
+        pool = Executors.newFixedThreadPool(workers);
+        generator = new NoGuessGenerator(pool, workers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public Object generate() {
+        return generator.generate(size, size, mines, size / 2, size / 2, seed++, 1_000_000).board;
+    }
+}
@@ -0,0 +1,72 @@
+package com.u3info.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Striped setup (ParallelBoardSetup) on a pool with one thread per core, against the
+ single-threaded placeMines. Speedup = sequential / striped at the same size and density;
+ expect it to level off at the core count.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSetupBenchmark {
+
+    @Param({"1024", "4096", "10000"})
+    int size;
+
+    @Param({"0.15", "0.35"})
+    double density;
+
+    @Param({"1", "2", "4", "8", "16", "64"})
+    int stripes;
+
+    private int mines;
+    private ForkJoinPool pool;
+    private ParallelBoardSetup setup;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        mines = BenchmarkBoards.mines(size, density);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        setup = new ParallelBoardSetup(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Board striped() {
+        Board board = new Board(size);
+        setup.placeMines(board, mines, seed++, stripes);
+        return board;
+    }
+
+    @Benchmark
+    public Board sequential() {
+        Board board = new Board(size);
+        board.placeMines(mines, new Random(seed++), MinePlacement.FLOYD, AdjacencyPass.SLIDING_WINDOW);
+        return board;
+    }
+}
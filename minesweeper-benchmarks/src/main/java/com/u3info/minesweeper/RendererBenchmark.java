@@ -0,0 +1,77 @@
+package com.u3info.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Cost of drawing a board. Output goes to a stream that discards it, so only the renderer
+ and PrintStream overhead is measured. Every other square is revealed.
+
+ -printBoard: the buffered renderer used by the game.
+ -printBoardLegacy: the previous one-print-per-square renderer, same output.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RendererBenchmark {
+
+    @Param({"8", "64", "512", "4096"})
+    int size;
+
+    private Board board;
+    private final MinesweepViewRenderer renderer = new MinesweepViewRenderer();
+    private final LegacyViewRenderer legacy = new LegacyViewRenderer();
+    private final PrintStream sink = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    });
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkBoards.populated(size, 0.15);
+        for (int i = 0; i < board.getTotalCells(); i += 2) {
+            board.setRevealed(i, true);
+        }
+        if (size <= 512) {
+            ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+            ByteArrayOutputStream perSquare = new ByteArrayOutputStream();
+            renderer.printBoard(board, new PrintStream(buffered));
+            legacy.printBoard(board, new PrintStream(perSquare));
+            if (!buffered.toString().equals(perSquare.toString())) {
+                throw new IllegalStateException("Renderers disagree at size " + size);
+            }
+        }
+    }
+
+    @Benchmark
+    public void printBoard() {
+        renderer.printBoard(board, sink);
+    }
+
+    @Benchmark
+    public void printBoardLegacy() {
+        legacy.printBoard(board, sink);
+    }
+}
@@ -0,0 +1,72 @@
+package com.u3info.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Cost of a move.
+
+ -singleReveal: revealing one numbered square (no flood fill).
+ -floodAllZero: worst case flood fill, one click on a board without mines opens every square.
+ gc.alloc.rate.norm for floodAllZero should stay at ~0 B/op: the fill reuses its queue.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RevealBenchmark {
+
+    @Param({"8", "64", "512", "4096"})
+    int size;
+
+    @Param({"0.05", "0.15", "0.35"})
+    double density;
+
+    private Board mined;
+    private int numberedRow;
+    private int numberedCol;
+    private Board empty;
+
+    @Setup
+    public void setUp() {
+        mined = BenchmarkBoards.populated(size, density);
+        numberedRow = -1;
+        for (int i = 0; i < mined.getTotalCells() && numberedRow < 0; i++) {
+            if (mined.adjacent(i) > 0) {
+                numberedRow = i / size;
+                numberedCol = i % size;
+            }
+        }
+        empty = new Board(size);
+    }
+
+    @Setup(Level.Invocation)
+    public void hideEmptyBoard() {
+        empty.resetReveals();
+    }
+
+    @Benchmark
+    public Object singleReveal() {
+        mined.setRevealed(mined.index(numberedRow, numberedCol), false);
+        return mined.reveal(numberedRow, numberedCol);
+    }
+
+    @Benchmark
+    public Object floodAllZero() {
+        return empty.reveal(0, 0);
+    }
+}
@@ -0,0 +1,74 @@
+package com.u3info.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ The same work on each Topology: placing mines with incremental counts, recounting the
+ whole board (the sliding window on SQUARE, the neighbour table elsewhere) and one click
+ that floods a board without mines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopologyBenchmark {
+
+    @Param({"SQUARE", "TOROIDAL", "HEXAGONAL", "KNIGHT"})
+    String topology;
+
+    @Param({"512"})
+    int size;
+
+    @Param({"0.15"})
+    double density;
+
+    private Board mined;
+    private Board empty;
+
+    @Setup
+    public void setUp() {
+        Topology t = Topology.valueOf(topology);
+        mined = new Board(size, size, t);
+        mined.placeMines(BenchmarkBoards.mines(size, density), new Random(BenchmarkBoards.SEED), MinePlacement.FLOYD);
+        empty = new Board(size, size, t);
+    }
+
+    @Setup(Level.Invocation)
+    public void hideEmptyBoard() {
+        empty.resetReveals();
+    }
+
+    @Benchmark
+    public Object setup() {
+        Board board = new Board(size, size, mined.getTopology());
+        board.placeMines(BenchmarkBoards.mines(size, density), new Random(BenchmarkBoards.SEED), MinePlacement.FLOYD);
+        return board;
+    }
+
+    @Benchmark
+    public Object computeAdjacents() {
+        mined.computeAdjacents();
+        return mined;
+    }
+
+    @Benchmark
+    public Object floodAllZero() {
+        return empty.reveal(0, 0);
+    }
+}
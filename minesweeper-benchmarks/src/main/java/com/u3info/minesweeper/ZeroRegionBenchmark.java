@@ -0,0 +1,78 @@
+package com.u3info.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ The ZeroRegions index: what building it costs, and a click on the board's largest zero
+ region with the index against the same click flooded by the BFS.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZeroRegionBenchmark {
+
+    @Param({"512", "4096"})
+    int size;
+
+    @Param({"0.01", "0.05"})
+    double density;
+
+    private Board plain;
+    private Board indexed;
+    private int clickRow;
+    private int clickCol;
+
+    @Setup
+    public void setUp() {
+        plain = BenchmarkBoards.populated(size, density);
+        indexed = BenchmarkBoards.populated(size, density);
+        indexed.enableZeroRegions();
+        ZeroRegions regions = indexed.zeroRegions();
+        int best = -1;
+        for (int i = 0; i < indexed.getTotalCells(); i++) {
+            int k = regions.regionOf(i);
+            if (k >= 0 && regions.size(k) > best) {
+                best = regions.size(k);
+                clickRow = i / size;
+                clickCol = i % size;
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void hide() {
+        plain.resetReveals();
+        indexed.resetReveals();
+    }
+
+    @Benchmark
+    public Object build() {
+        return ZeroRegions.build(plain);
+    }
+
+    @Benchmark
+    public Object indexedReveal() {
+        return indexed.reveal(clickRow, clickCol);
+    }
+
+    @Benchmark
+    public Object bfsReveal() {
+        return plain.reveal(clickRow, clickCol);
+    }
+}
@@ -0,0 +1,13 @@
+package com.u3info.minesweeper;
+
+/* How Board.placeMines fills in the adjacent counts once mines go down. */
+enum AdjacencyPass {
+    /* every placed mine bumps the counters of its neighbours (per the board's topology) straight away,
+     so setup costs O(mines) and there is no second pass over the board. */
+    INCREMENTAL,
+
+    /* mines are placed first, then one sequential pass slides a 3-row column-sum window
+     over the packed array (other topologies count through the neighbour table instead).
+     Touches every cell, but with no random access; for dense boards. */
+    SLIDING_WINDOW
+}
@@ -0,0 +1,35 @@
+package com.u3info.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ Command line entry for headless batch play:
+
+    BatchMain <games> <rows> <cols> <mines> [seed] [parallelism] [--solver]
+
+ Games use seed, seed+1, ...; parallelism defaults to the number of available cores. Moves
+ are random unless --solver is given, which plays MoveStrategy.SOLVER instead.
+ */
+public class BatchMain {
+    public static void main(String[] args) {
+        boolean solver = args.length > 0 && "--solver".equals(args[args.length - 1]);
+        if (solver) args = Arrays.copyOf(args, args.length - 1);
+        if (args.length < 4) {
+            System.err.println("Usage: BatchMain <games> <rows> <cols> <mines> [seed] [parallelism] [--solver]");
+            System.exit(2);
+        }
+        int games = Integer.parseInt(args[0]);
+        int rows = Integer.parseInt(args[1]);
+        int cols = Integer.parseInt(args[2]);
+        int mines = Integer.parseInt(args[3]);
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+        int parallelism = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+        Metrics.startIfEnabled(System.err);
+        BatchRunner runner = new BatchRunner(parallelism);
+        BatchStats stats = runner.run(BatchRunner.games(games, rows, cols, mines, seed,
+                solver ? MoveStrategy.SOLVER : MoveStrategy.RANDOM));
+        System.out.println(stats);
+        if (Metrics.ENABLED) System.err.println(Metrics.INSTANCE.toText());
+    }
+}
@@ -0,0 +1,114 @@
+package com.u3info.minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ Plays games without the console or renderer, for simulation and load testing.
+
+    -Split the specs into one contiguous slice per worker thread.
+    -Each worker builds and plays its games and keeps its own BatchStats.
+    -Merge the per-worker stats and time the whole run.
+
+ Games are independent and fully determined by their spec, so results do not depend on the
+ parallelism level.
+ */
+final class BatchRunner {
+
+    //salt so the strategy's random stream differs from the one that placed the mines
+    private static final long STRATEGY_SALT = 0x9E3779B97F4A7C15L;
+
+    private final int parallelism;
+
+    BatchRunner(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1");
+        this.parallelism = parallelism;
+    }
+
+    BatchStats run(List<GameSpec> specs) {
+        long start = System.nanoTime();
+        BatchStats total = new BatchStats();
+        int workers = Math.min(parallelism, Math.max(1, specs.size()));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<BatchStats>> parts = new ArrayList<Future<BatchStats>>();
+            for (int w = 0; w < workers; w++) {
+                int from = (int) ((long) specs.size() * w / workers);
+                int to = (int) ((long) specs.size() * (w + 1) / workers);
+                parts.add(pool.submit(slice(specs, from, to)));
+            }
+            for (Future<BatchStats> part : parts) {
+                total.merge(part.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Batch game failed", ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        total.elapsedNanos = System.nanoTime() - start;
+        return total;
+    }
+
+    private static Callable<BatchStats> slice(final List<GameSpec> specs, final int from, final int to) {
+        return () -> {
+            BatchStats stats = new BatchStats();
+            for (int k = from; k < to; k++) {
+                play(specs.get(k), stats);
+            }
+            return stats;
+        };
+    }
+
+    static GameOutcome play(GameSpec spec, BatchStats stats) {
+        Board board = new Board(spec.rows, spec.cols);
+        board.placeMines(spec.mines, new Random(spec.seed), spec.placement);
+        Random rng = new Random(spec.seed ^ STRATEGY_SALT);
+        MoveStrategy.Chooser chooser = null;
+        if (spec.script == null) {
+            board.setChangeTracking(true);
+            chooser = spec.strategy.start(board);
+        }
+
+        GameOutcome outcome = GameOutcome.UNFINISHED;
+        int moves = 0;
+        //every useful move reveals at least one square, so this bounds a misbehaving strategy
+        int maxMoves = spec.script != null ? spec.script.length : board.getTotalCells();
+        while (moves < maxMoves) {
+            int move = spec.script != null ? spec.script[moves] : chooser.nextMove(rng);
+            if (move < 0) break;
+            moves++;
+            Board.RevealResult res = board.reveal(move / spec.cols, move % spec.cols);
+            if (res.hitMine) {
+                outcome = GameOutcome.LOST;
+                break;
+            }
+            if (board.allNonMinesRevealed()) {
+                outcome = GameOutcome.WON;
+                break;
+            }
+        }
+        stats.record(outcome, moves, board.getRevealedCount());
+        return outcome;
+    }
+
+    static List<GameSpec> randomGames(int games, int rows, int cols, int mines, long baseSeed) {
+        return games(games, rows, cols, mines, baseSeed, MoveStrategy.RANDOM);
+    }
+
+    static List<GameSpec> games(int games, int rows, int cols, int mines, long baseSeed, MoveStrategy strategy) {
+        List<GameSpec> specs = new ArrayList<GameSpec>(games);
+        for (int g = 0; g < games; g++) {
+            specs.add(GameSpec.played(rows, cols, mines, baseSeed + g, strategy));
+        }
+        return specs;
+    }
+}
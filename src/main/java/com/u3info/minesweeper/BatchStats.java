@@ -0,0 +1,51 @@
+package com.u3info.minesweeper;
+
+/* Totals of a batch run. Each worker fills its own instance and BatchRunner merges them,
+ so nothing here needs to be thread-safe.
+ */
+final class BatchStats {
+    long games;
+    long won;
+    long lost;
+    long unfinished;
+    long moves;
+    long cellsRevealed;
+    long elapsedNanos;
+
+    void record(GameOutcome outcome, int movesPlayed, int revealed) {
+        games++;
+        moves += movesPlayed;
+        cellsRevealed += revealed;
+        switch (outcome) {
+            case WON:
+                won++;
+                break;
+            case LOST:
+                lost++;
+                break;
+            default:
+                unfinished++;
+        }
+    }
+
+    void merge(BatchStats other) {
+        games += other.games;
+        won += other.won;
+        lost += other.lost;
+        unfinished += other.unfinished;
+        moves += other.moves;
+        cellsRevealed += other.cellsRevealed;
+    }
+
+    double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "games=%d won=%d lost=%d unfinished=%d winRate=%.4f avgMoves=%.2f cellsRevealed=%d elapsed=%.3fs games/sec=%.1f",
+            games, won, lost, unfinished, games == 0 ? 0.0 : (double) won / games,
+            games == 0 ? 0.0 : (double) moves / games, cellsRevealed, elapsedNanos / 1e9, gamesPerSecond());
+    }
+}
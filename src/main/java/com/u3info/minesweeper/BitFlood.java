@@ -0,0 +1,191 @@
+package com.u3info.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ Word-parallel flood fill for square boards (FloodFill.BITBOARD).
+
+    -Each row is a run of longs, bit c % 64 of word c / 64 standing for column c. For every
+     row the fill reaches, two planes are read from the packed cells once: "passable" (hidden,
+     unflagged zeros the region can grow through) and "hidden" (hidden, unflagged squares).
+    -The region grows row by row: the region bits of the row and the rows above and below
+     are spread one column left and right (8-connectivity), masked with passable and then
+     extended along runs of passable bits in both directions. Along a run, one add per word
+     does it: p + seeds carries through the run above each seed and clears it.
+    -Passes alternate downwards and upwards over the rows the region spans until a pass
+     changes nothing. The opened squares are then the region spread once more, masked with
+     hidden, so the numbered border comes with it, and they are marked and counted with
+     Long.bitCount one word at a time.
+
+ Opens exactly what the BFS opens: the seed must be a zero that was just revealed, and a
+ revealed square neither lets the region through nor gets opened again. Scratch planes are
+ allocated once; a row is only converted when a fill first touches it.
+ */
+final class BitFlood {
+
+    private final int rows;
+    private final int cols;
+    private final int words;
+    //valid bits of a row's last word
+    private final long lastMask;
+    private final long[] passable;
+    private final long[] hidden;
+    private final long[] region;
+    //loaded[r] == fill when row r's planes are current for this fill
+    private final int[] loaded;
+    private int fill;
+    private final long[] seeds;
+    private final long[] grown;
+
+    BitFlood(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.words = (cols + 63) >>> 6;
+        this.lastMask = (cols & 63) == 0 ? -1L : (1L << (cols & 63)) - 1;
+        this.passable = new long[rows * words];
+        this.hidden = new long[rows * words];
+        this.region = new long[rows * words];
+        this.loaded = new int[rows];
+        this.seeds = new long[words];
+        this.grown = new long[words];
+    }
+
+    /* floods from seed, a zero the caller has just revealed. Sets the REVEALED bit of every
+     square opened, adds them to changes (when not null) and the tile index (when not null),
+     and returns how many were opened, the seed not included. */
+    int fill(byte[] cells, int seed, IntList changes, TileIndex tiles) {
+        if (++fill == Integer.MAX_VALUE) {
+            Arrays.fill(loaded, 0);
+            fill = 1;
+        }
+        int sr = seed / cols, sc = seed % cols;
+        load(cells, sr);
+        region[sr * words + (sc >>> 6)] |= 1L << sc;
+
+        int lo = sr, hi = sr;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int r = Math.max(0, lo - 1); r <= Math.min(rows - 1, hi + 1); r++) {
+                if (grow(cells, r)) {
+                    changed = true;
+                    lo = Math.min(lo, r);
+                    hi = Math.max(hi, r);
+                }
+            }
+            for (int r = Math.min(rows - 1, hi + 1); r >= Math.max(0, lo - 1); r--) {
+                if (grow(cells, r)) {
+                    changed = true;
+                    lo = Math.min(lo, r);
+                    hi = Math.max(hi, r);
+                }
+            }
+        }
+
+        int opened = 0;
+        for (int r = Math.max(0, lo - 1); r <= Math.min(rows - 1, hi + 1); r++) {
+            load(cells, r);
+            spreadRows(r);
+            int base = r * words;
+            for (int w = 0; w < words; w++) {
+                long open = seeds[w] & hidden[base + w];
+                if (open == 0) continue;
+                opened += Long.bitCount(open);
+                int colBase = r * cols + (w << 6);
+                while (open != 0) {
+                    int i = colBase + Long.numberOfTrailingZeros(open);
+                    cells[i] |= Board.REVEALED;
+                    if (changes != null) changes.add(i);
+                    if (tiles != null) tiles.revealedSafe(r, i - r * cols);
+                    open &= open - 1;
+                }
+            }
+        }
+        return opened;
+    }
+
+    //grows the region in row r from its own bits and its neighbours'; returns whether it grew
+    private boolean grow(byte[] cells, int r) {
+        load(cells, r);
+        spreadRows(r);
+        int base = r * words;
+        for (int w = 0; w < words; w++) {
+            seeds[w] &= passable[base + w];
+        }
+        fillRuns(base);
+        boolean changed = false;
+        for (int w = 0; w < words; w++) {
+            long next = region[base + w] | grown[w];
+            if (next != region[base + w]) {
+                region[base + w] = next;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    //seeds = region of rows r-1..r+1, spread one column to each side
+    private void spreadRows(int r) {
+        int base = r * words;
+        boolean up = r > 0 && loaded[r - 1] == fill, down = r + 1 < rows && loaded[r + 1] == fill;
+        for (int w = 0; w < words; w++) {
+            long v = region[base + w];
+            if (up) v |= region[base - words + w];
+            if (down) v |= region[base + words + w];
+            grown[w] = v;
+        }
+        for (int w = 0; w < words; w++) {
+            long v = grown[w];
+            long s = v | (v << 1) | (v >>> 1);
+            if (w > 0) s |= grown[w - 1] >>> 63;
+            if (w + 1 < words) s |= grown[w + 1] << 63;
+            seeds[w] = s;
+        }
+        seeds[words - 1] &= lastMask;
+    }
+
+    /* grown = passable bits of row base reachable from seeds along runs of passable bits.
+     Upwards: p + seeds carries through each run above a seed, so p & ~(p + seeds) is that
+     part of the run; the carry out of a word continues the run in the next one. Downwards is
+     the same on bit-reversed words, walked from the last word to the first. */
+    private void fillRuns(int base) {
+        long carry = 0;
+        for (int w = 0; w < words; w++) {
+            long p = passable[base + w], s = seeds[w];
+            long t = p + s;
+            long t2 = t + carry;
+            carry = Long.compareUnsigned(t, p) < 0 || Long.compareUnsigned(t2, t) < 0 ? 1 : 0;
+            grown[w] = (p & ~t2) | s;
+        }
+        carry = 0;
+        for (int w = words - 1; w >= 0; w--) {
+            long p = Long.reverse(passable[base + w]), s = Long.reverse(seeds[w]);
+            long t = p + s;
+            long t2 = t + carry;
+            carry = Long.compareUnsigned(t, p) < 0 || Long.compareUnsigned(t2, t) < 0 ? 1 : 0;
+            grown[w] |= Long.reverse((p & ~t2) | s);
+        }
+    }
+
+    //reads row r's passable and hidden bits from the cells and clears its region, once per fill
+    private void load(byte[] cells, int r) {
+        if (loaded[r] == fill) return;
+        loaded[r] = fill;
+        int base = r * words, rowStart = r * cols;
+        for (int w = 0; w < words; w++) {
+            long pass = 0, hide = 0;
+            int from = w << 6, to = Math.min(cols, from + 64);
+            for (int c = from; c < to; c++) {
+                int v = cells[rowStart + c];
+                long bit = 1L << c;
+                if ((v & (Board.REVEALED | Board.FLAGGED)) == 0) {
+                    hide |= bit;
+                    if ((v & (Board.MINE | Board.ADJACENT_MASK)) == 0) pass |= bit;
+                }
+            }
+            passable[base + w] = pass;
+            hidden[base + w] = hide;
+            region[base + w] = 0;
+        }
+    }
+}
@@ -1,28 +1,80 @@
 package com.u3info.minesweeper;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  logic of game board.
 
-    -create the grid of Cell objects with the given size.
+    -keep the state of every square packed into one byte of a flat array (see below).
     -Randomly placing mines and calculating the number of adjacent mines for each non-mine cell.
     -Handle reveal operations.
     -Track the total number of revealed cells and determining win/loss conditions.
+
+ Boards are rows x cols (square boards are just rows == cols), each side at most MAX_SIDE.
+ Cell layout: bits 0-3 hold the adjacent mine count (0-8), bit 4 marks a mine, bit 5 marks
+ a revealed square and bit 6 a flagged one. The count is kept for mines too, so a mine can later be moved without
+ rescanning its neighbourhood. Square (r, c) lives at index r * cols + c.
+
+ Which squares are neighbours is set by the board's Topology (the classic 8 by default).
+ Counts, flood fills, chords and mine moves walk its NeighbourTable, where edges are already
+ folded into per-shape offsets, so none of them bounds-checks a neighbour.
  */
 
 public class Board {
 
-    private final int size;
-    private final Cell[][] grid;
+    static final int ADJACENT_MASK = 0x0F;
+    static final int MINE_SHIFT = 4;
+    static final int MINE = 1 << MINE_SHIFT;
+    static final int REVEALED = 0x20;
+    static final int FLAGGED = 0x40;
+
+    //2^14 per side keeps rows * cols (and every packed index) comfortably inside an int
+    static final int MAX_SIDE = 16384;
+    static final int MAX_MINE_PERCENT = 35;
+
+    private final int rows;
+    private final int cols;
+    private final byte[] cells;
+    private final Topology topology;
+    private final NeighbourTable neighbours;
     private int totalMines;
     private int revealedCount;
-
+    //scratch queue reused by every flood fill on this board
+    private final IntQueue floodQueue = new IntQueue(64);
+    //squares revealed by the last reveal, only recorded while change tracking is on
+    private final IntList changes = new IntList(16);
+    private final IntList chordTargets = new IntList(8);
+    private boolean trackChanges;
+    //per-tile summaries, only kept once enableTileIndex has been called
+    private TileIndex tiles;
+    //word-parallel flood fill, only set while FloodFill.BITBOARD is selected
+    private BitFlood bitFlood;
+    //precomputed zero regions, only kept once enableZeroRegions has been called
+    private ZeroRegions zeroRegions;
+    //set when a mine is moved; floods ignore stale regions until they are relabelled
+    private boolean zeroRegionsStale;
+
+    //side length of a square board
     int getSize() {
-        return size;
+        return rows;
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    int getCols() {
+        return cols;
+    }
+
+    Topology getTopology() {
+        return topology;
+    }
+
+    NeighbourTable neighbours() {
+        return neighbours;
     }
 
     int getTotalMines() {
@@ -34,70 +86,424 @@ public class Board {
     }
 
     int getTotalCells() {
-        return size * size;
+        return rows * cols;
     }
 
+    //view over a single square; changes made through it go straight to the packed array
     Cell cell(int r, int c) {
-        return grid[r][c];
+        return new Cell(this, index(r, c));
     }
 
     Board(int size) {
-        this.size = size;
-        this.grid = new Cell[size][size];
-        for (int r = 0; r < size; r++) {
-            for (int c = 0; c < size; c++) {
-                grid[r][c] = new Cell();
-            }
+        this(size, size);
+    }
+
+    Board(int rows, int cols) {
+        this(rows, cols, Topology.SQUARE);
+    }
+
+    Board(int rows, int cols, Topology topology) {
+        checkDimensions(rows, cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = new byte[rows * cols];
+        this.topology = topology;
+        this.neighbours = NeighbourTable.build(topology, rows, cols);
+    }
+
+    static void checkDimensions(int rows, int cols) {
+        if (rows < 1 || rows > MAX_SIDE || cols < 1 || cols > MAX_SIDE) {
+            throw new IllegalArgumentException("Board must be between 1x1 and " + MAX_SIDE + "x" + MAX_SIDE);
         }
     }
 
+    //35% of the squares, computed in long arithmetic so it stays exact on the largest boards
+    static int maxMines(int rows, int cols) {
+        return (int) ((long) rows * cols * MAX_MINE_PERCENT / 100);
+    }
+
+    int index(int r, int c) {
+        return r * cols + c;
+    }
+
+    boolean inBounds(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < cols;
+    }
+
+    boolean isMine(int i) {
+        return (cells[i] & MINE) != 0;
+    }
+
+    boolean isRevealed(int i) {
+        return (cells[i] & REVEALED) != 0;
+    }
+
+    //-1 for a mine, otherwise the number of mines around the square
+    int adjacent(int i) {
+        int v = cells[i];
+        return (v & MINE) != 0 ? -1 : v & ADJACENT_MASK;
+    }
+
+    //number of mines around the square, also for a mine
+    int storedAdjacent(int i) {
+        return cells[i] & ADJACENT_MASK;
+    }
+
+    boolean isFlagged(int i) {
+        return (cells[i] & FLAGGED) != 0;
+    }
+
+    void setMine(int i, boolean mine) {
+        setBit(i, MINE, mine);
+    }
+
+    void setRevealed(int i, boolean revealed) {
+        setBit(i, REVEALED, revealed);
+    }
+
+    void setFlagged(int i, boolean flagged) {
+        setBit(i, FLAGGED, flagged);
+    }
+
+    //negative values are the "this is a mine" marker and leave the stored count untouched
+    void setAdjacent(int i, int adjacent) {
+        if (adjacent < 0) return;
+        cells[i] = (byte) ((cells[i] & ~ADJACENT_MASK) | (adjacent & ADJACENT_MASK));
+    }
+
+    private void setBit(int i, int bit, boolean on) {
+        cells[i] = (byte) (on ? cells[i] | bit : cells[i] & ~bit);
+    }
+
     /* randomly places the specified number of mines onto the game board and then
     computes the values for all other cells.*/
     void placeMines(int minesCount, Random rng) {
-        int max = (int)Math.floor(getTotalCells() * 0.35);
+        placeMines(minesCount, rng, MinePlacement.REJECTION);
+    }
+
+    void placeMines(int minesCount, Random rng, MinePlacement placement) {
+        placeMines(minesCount, rng, placement, AdjacencyPass.INCREMENTAL);
+    }
+
+    void placeMines(int minesCount, Random rng, MinePlacement placement, AdjacencyPass pass) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        int max = maxMines(rows, cols);
+        if (minesCount < 1 || minesCount > max) {
+            throw new IllegalArgumentException("Mines must be between 1 and " + max);
+        }
+        this.totalMines = minesCount;
+        boolean incremental = pass == AdjacencyPass.INCREMENTAL;
+        switch (placement) {
+            case FLOYD:
+                placeByFloyd(minesCount, rng, incremental);
+                break;
+            default:
+                placeByRejection(minesCount, rng, incremental);
+        }
+
+        if (!incremental) {
+            computeAdjacents();
+        }
+        rebuildIndexes();
+        if (Metrics.ENABLED) Metrics.PLACE_MINES_NANOS.record(System.nanoTime() - start);
+    }
+
+    private void placeByRejection(int minesCount, Random rng, boolean incremental) {
+        int placed = 0;
+        while (placed < minesCount) {
+            int r = rng.nextInt(rows);
+            int c = rng.nextInt(cols);
+            int i = index(r, c);
+            if (!isMine(i)) {
+                putMine(i, incremental);
+                placed++;
+            }
+        }
+    }
+
+    //for j in [n-m, n): pick t in [0, j]; take t, or j itself if t is already taken.
+    //j can never be taken yet, so every draw places exactly one mine.
+    private void placeByFloyd(int minesCount, Random rng, boolean incremental) {
+        int n = getTotalCells();
+        for (int j = n - minesCount; j < n; j++) {
+            int t = rng.nextInt(j + 1);
+            putMine(isMine(t) ? j : t, incremental);
+        }
+    }
+
+    /* rejection sampling that keeps (r, c) and its neighbours (the 3x3 block on a square
+     board) free, so revealing (r, c) first is guaranteed to open a zero. Counts are updated
+     as mines go in. */
+    void placeMinesAvoiding(int minesCount, Random rng, int r, int c) {
+        if (!inBounds(r, c)) throw new IllegalArgumentException("Out of bounds");
+        int first = index(r, c);
+        int shape = neighbours.shape(r, c);
+        int block = neighbours.start[shape + 1] - neighbours.start[shape] + 1;
+        int max = Math.min(maxMines(rows, cols), getTotalCells() - block);
         if (minesCount < 1 || minesCount > max) {
             throw new IllegalArgumentException("Mines must be between 1 and " + max);
         }
         this.totalMines = minesCount;
         int placed = 0;
         while (placed < minesCount) {
-            int r = rng.nextInt(size);
-            int c = rng.nextInt(size);
-            if (!grid[r][c].isAMine()) {
-                grid[r][c].setAMine(true);
+            int mr = rng.nextInt(rows);
+            int mc = rng.nextInt(cols);
+            int i = index(mr, mc);
+            if (i == first || isNeighbour(first, shape, i)) continue;
+            if (!isMine(i)) {
+                putMine(i, true);
                 placed++;
             }
         }
+        rebuildIndexes();
+    }
+
+    /* first-click safety: if (r, c) holds a mine, moves it to a random free square other than
+     (r, c) that is not revealed. Only the two neighbourhoods are touched, because every square (mines too)
+     keeps its count: the old spot's neighbours lose one, the new spot's gain one. On a fresh
+     board at most 35% of the squares are mines, so a free square is found in under two draws
+     on average. Once most free squares are revealed the draws would mostly miss, so the
+     square is picked by a scan over the free ones instead. Returns whether a mine was moved,
+     which is false when there is no free square left. */
+    boolean moveMineAway(int r, int c, Random rng) {
+        if (!inBounds(r, c)) throw new IllegalArgumentException("Out of bounds");
+        int from = index(r, c);
+        if (!isMine(from)) return false;
+        int n = getTotalCells();
+        //hidden non-mines; a revealed mine makes this an underestimate, which only means scanning
+        int free = n - totalMines - revealedCount;
+        int to = -1;
+        if (free >= n / 8) {
+            for (int draw = 0; draw < 32 && to < 0; draw++) {
+                int t = rng.nextInt(n);
+                if ((cells[t] & (MINE | REVEALED)) == 0) to = t;
+            }
+        }
+        if (to < 0) to = pickFree(rng);
+        if (to < 0) return false;
+        cells[from] &= ~MINE;
+        addToNeighbours(from, -1);
+        putMine(to, true);
+        if (tiles != null) tiles.moveMine(from, to);
+        if (zeroRegions != null) zeroRegionsStale = true;
+        return true;
+    }
+
+    //a uniformly random square that is neither a mine nor revealed, or -1 if there is none
+    private int pickFree(Random rng) {
+        int free = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if ((cells[i] & (MINE | REVEALED)) == 0) free++;
+        }
+        if (free == 0) return -1;
+        int k = rng.nextInt(free);
+        for (int i = 0; ; i++) {
+            if ((cells[i] & (MINE | REVEALED)) == 0 && k-- == 0) return i;
+        }
+    }
+
+    //Floyd's sampling restricted to indices [from, from + n): sets mine bits only, no counts
+    void placeMinesInRange(int from, int n, int minesCount, SplittableRandom rng) {
+        for (int j = n - minesCount; j < n; j++) {
+            int t = rng.nextInt(j + 1);
+            cells[from + (isMine(from + t) ? j : t)] |= MINE;
+        }
+    }
+
+    //copy of the packed cell array, in the layout described at the top of this class
+    byte[] copyCells() {
+        return cells.clone();
+    }
+
+    void setTotalMines(int totalMines) {
+        this.totalMines = totalMines;
+    }
+
+    //for restoring saved games; callers set the REVEALED bits themselves
+    void setRevealedCount(int revealedCount) {
+        this.revealedCount = revealedCount;
+    }
+
+    private void putMine(int i, boolean incremental) {
+        cells[i] |= MINE;
+        if (incremental) addToNeighbours(i, 1);
+    }
+
+    //adds delta to the adjacent count of every neighbour of cell i
+    private void addToNeighbours(int i, int delta) {
+        int[] offsets = neighbours.offsets;
+        int shape = neighbours.shape(i / cols, i % cols);
+        for (int k = neighbours.start[shape], end = neighbours.start[shape + 1]; k < end; k++) {
+            cells[i + offsets[k]] += delta;
+        }
+    }
 
-        computeAdjacents();
+    //whether j is one of the neighbours of i, whose shape is given
+    private boolean isNeighbour(int i, int shape, int j) {
+        int[] offsets = neighbours.offsets;
+        for (int k = neighbours.start[shape], end = neighbours.start[shape + 1]; k < end; k++) {
+            if (i + offsets[k] == j) return true;
+        }
+        return false;
     }
 
     //counts the no. of mines in its 8 neighboring squares (up to 8; fewer on edges/corners).
-    //no. of mines in the adjacent cells is the value of the cell
-    private void computeAdjacents() {
-        for (int r = 0; r < size; r++) {
-            for (int c = 0; c < size; c++) {
-                if (grid[r][c].isAMine()) {
-                    grid[r][c].setAdjacent(-1);
-                    continue;
+    //no. of mines in the adjacent cells is the value of the cell.
+    //colSum[c] holds the mines in column c of rows r-1..r+1 and slides down one row at a time,
+    //so each count is three array reads instead of a bounds-checked scan of 8 neighbours.
+    //Other topologies count through the neighbour table instead.
+    void computeAdjacents() {
+        computeAdjacentRows(0, rows);
+    }
+
+    //pass over rows [from, to) only. Reads the mine bits of the rows around the range,
+    //writes counts only inside it, so disjoint ranges can run on different threads.
+    void computeAdjacentRows(int from, int to) {
+        if (topology != Topology.SQUARE) {
+            countThroughTable(from, to);
+            return;
+        }
+        int[] colSum = new int[cols];
+        for (int c = 0; c < cols; c++) {
+            int sum = mineBit(from, c);
+            if (from > 0) sum += mineBit(from - 1, c);
+            if (from + 1 < rows) sum += mineBit(from + 1, c);
+            colSum[c] = sum;
+        }
+        for (int r = from; r < to; r++) {
+            if (r > from) {
+                for (int c = 0; c < cols; c++) {
+                    if (r + 1 < rows) colSum[c] += mineBit(r + 1, c);
+                    if (r >= 2) colSum[c] -= mineBit(r - 2, c);
                 }
-                int cnt = 0;
-                for (int rr = Math.max(0, r-1); rr <= Math.min(size-1, r+1); rr++) {
-                    for (int cc = Math.max(0, c-1); cc <= Math.min(size-1, c+1); cc++) {
-                        if (rr == r && cc == c) continue;
-                        if (grid[rr][cc].isAMine()) cnt++;
-                    }
+            }
+            int rowBase = r * cols;
+            for (int c = 0; c < cols; c++) {
+                int block = colSum[c];
+                if (c > 0) block += colSum[c - 1];
+                if (c < cols - 1) block += colSum[c + 1];
+                int i = rowBase + c;
+                setAdjacent(i, block - ((cells[i] & MINE) >>> MINE_SHIFT));
+            }
+        }
+    }
+
+    private void countThroughTable(int from, int to) {
+        int[] offsets = neighbours.offsets, start = neighbours.start;
+        for (int r = from; r < to; r++) {
+            int rowBase = r * cols;
+            for (int c = 0; c < cols; c++) {
+                int i = rowBase + c;
+                int shape = neighbours.shape(r, c);
+                int count = 0;
+                for (int k = start[shape], end = start[shape + 1]; k < end; k++) {
+                    count += (cells[i + offsets[k]] & MINE) >>> MINE_SHIFT;
                 }
-                grid[r][c].setAdjacent(cnt);
+                setAdjacent(i, count);
             }
         }
     }
 
+    private int mineBit(int r, int c) {
+        return (cells[r * cols + c] & MINE) >>> MINE_SHIFT;
+    }
+
+    /* when on, every reveal records the squares it uncovered (the clicked one plus anything
+     the flood fill opened), so callers can redraw only those. Off by default: the list grows
+     with the largest flood seen. */
+    void setChangeTracking(boolean on) {
+        trackChanges = on;
+        changes.clear();
+    }
+
+    //indices of the squares the last reveal uncovered, in the order they were uncovered
+    IntList lastChanges() {
+        return changes;
+    }
+
+    //empties the board (no mines, nothing revealed) so its array can hold another layout
+    void clear() {
+        Arrays.fill(cells, (byte) 0);
+        totalMines = 0;
+        revealedCount = 0;
+        changes.clear();
+        rebuildIndexes();
+    }
+
+    //brings the optional indexes up to date after the mines were laid out anew
+    void rebuildIndexes() {
+        if (tiles != null) tiles = TileIndex.build(this);
+        if (zeroRegions != null) relabelZeroRegions();
+    }
+
+    /* builds a TileIndex from the current mines and reveals and keeps it up to date from now
+     on (it is rebuilt whenever mines are placed again). Costs one pass over the board plus
+     an int per mine. Squares changed through the raw setters are not tracked. */
+    void enableTileIndex() {
+        tiles = TileIndex.build(this);
+    }
+
+    //null unless enableTileIndex has been called
+    TileIndex tiles() {
+        return tiles;
+    }
+
+    /* labels the connected zero regions now, so a click on an untouched region marks its
+     precomputed squares instead of searching for them. Costs an int per square. Placing or
+     clearing mines relabels, which is O(N) like the placement itself. Moving a mine
+     (moveMineAway, on the first click) only marks the labels stale, so it stays O(1); until
+     they are relabelled, by resetReveals or by calling zeroRegions(), floods use the regular
+     fill and no click ever pays for a rebuild. Counts changed through the raw setters are
+     not tracked. */
+    void enableZeroRegions() {
+        relabelZeroRegions();
+    }
+
+    //null unless enableZeroRegions has been called; relabels first if a mine has moved
+    ZeroRegions zeroRegions() {
+        if (zeroRegionsStale) relabelZeroRegions();
+        return zeroRegions;
+    }
+
+    private void relabelZeroRegions() {
+        zeroRegions = ZeroRegions.build(this);
+        zeroRegionsStale = false;
+    }
+
+    //BFS by default; BITBOARD needs the square topology
+    void setFloodFill(FloodFill fill) {
+        if (fill == FloodFill.BITBOARD && topology != Topology.SQUARE) {
+            throw new IllegalArgumentException("Bitboard flood fill needs the square topology");
+        }
+        bitFlood = fill == FloodFill.BITBOARD ? new BitFlood(rows, cols) : null;
+    }
+
+    //hides every square again but keeps the mines, so the same layout can be replayed
+    void resetReveals() {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] &= ~(REVEALED | FLAGGED);
+        }
+        revealedCount = 0;
+        if (tiles != null) tiles = TileIndex.build(this);
+        //between games is the place to catch up on a moved mine, not the next click
+        if (zeroRegionsStale) relabelZeroRegions();
+    }
+
     boolean allNonMinesRevealed() {
         return revealedCount == (getTotalCells() - totalMines);
     }
 
     static final class RevealResult {
+        //results only depend on (kind, adjacent), so reveal hands out shared instances
+        private static final RevealResult MINE_RESULT = new RevealResult(true, false, -1);
+        private static final RevealResult[] SAFE = new RevealResult[9];
+        private static final RevealResult[] ALREADY = new RevealResult[10];
+
+        static {
+            for (int adj = 0; adj <= 8; adj++) SAFE[adj] = new RevealResult(false, false, adj);
+            for (int adj = -1; adj <= 8; adj++) ALREADY[adj + 1] = new RevealResult(false, true, adj);
+        }
+
         final boolean hitMine;
         final boolean already;
         final int adjacent;
@@ -109,85 +515,193 @@ public class Board {
         }
 
         static RevealResult mine() {
-            return new RevealResult(true, false, -1);
+            return MINE_RESULT;
         }
 
         static RevealResult safe(int adj) {
-            return new RevealResult(false, false, adj);
+            return SAFE[adj];
         }
 
         static RevealResult alreadyRevealed(int adj) {
-            return new RevealResult(false, true, adj);
+            return ALREADY[adj + 1];
         }
     }
 
+    /* outcome of a move that can open several squares at once (chord, revealAll): whether a
+     mine went off and where, and how many squares were opened in total, flood fills included. */
+    static final class MoveSummary {
+        final boolean hitMine;
+        final int mineSquare;
+        final int opened;
+
+        MoveSummary(boolean hitMine, int mineSquare, int opened) {
+            this.hitMine = hitMine;
+            this.mineSquare = mineSquare;
+            this.opened = opened;
+        }
+    }
+
+    //flags or unflags a hidden square and returns whether it is flagged now
+    boolean toggleFlag(int r, int c) {
+        if (!inBounds(r, c)) throw new IllegalArgumentException("Out of bounds");
+        int i = index(r, c);
+        if (isRevealed(i)) throw new IllegalArgumentException("Square is already revealed");
+        cells[i] ^= FLAGGED;
+        return isFlagged(i);
+    }
+
     RevealResult reveal(int r, int c) {
+        if (!Metrics.ENABLED) return revealSquare(r, c);
+        long start = System.nanoTime();
+        RevealResult res = revealSquare(r, c);
+        Metrics.REVEAL_NANOS.record(System.nanoTime() - start);
+        Metrics.MOVES.increment();
+        return res;
+    }
+
+    private RevealResult revealSquare(int r, int c) {
         //check if not inside bounds
-        if (!(r >= 0 && r < size && c >= 0 && c < size)) throw new IllegalArgumentException("Out of bounds");
-        Cell cell = grid[r][c];
+        if (!inBounds(r, c)) throw new IllegalArgumentException("Out of bounds");
+        int i = index(r, c);
+        changes.clear();
 
-        if (cell.isRevealed()) {
-            return RevealResult.alreadyRevealed(cell.getAdjacent());
+        if (isRevealed(i)) {
+            return RevealResult.alreadyRevealed(adjacent(i));
         }
+        if (isFlagged(i)) throw new IllegalArgumentException("Square is flagged");
 
-        cell.setRevealed(true);
+        cells[i] |= REVEALED;
         revealedCount++;
+        if (trackChanges) changes.add(i);
 
-        if (cell.isAMine()) {
+        if (isMine(i)) {
             return RevealResult.mine();
         }
+        if (tiles != null) tiles.revealedSafe(r, c);
 
-        if (cell.getAdjacent() == 0) {
-            floodReveal(r, c);
+        if (adjacent(i) == 0) {
+            flood(i);
         }
 
-        return RevealResult.safe(cell.getAdjacent());
+        return RevealResult.safe(adjacent(i));
     }
 
-    //find neighbor cells
-    List<int[]> neighbors(int r, int c) {
-        List<int[]> res = new ArrayList<int[]>();
-        for (int rr = r-1; rr <= r+1; rr++) {
-            for (int cc = c-1; cc <= c+1; cc++) {
-                if (rr == r && cc == c) continue;
-                if ((rr >= 0 && rr < size && cc >= 0 && cc < size)) res.add(new int[]{rr, cc});
-            }
+    /* on a revealed number whose flagged neighbours match its count, reveals every other
+     hidden neighbour in one revealAll pass. Anything else opens nothing. */
+    MoveSummary chord(int r, int c) {
+        if (!inBounds(r, c)) throw new IllegalArgumentException("Out of bounds");
+        int i = index(r, c);
+        IntList targets = chordTargets;
+        targets.clear();
+        int adj = adjacent(i);
+        if (!isRevealed(i) || adj <= 0) return revealAll(targets);
+        int flags = 0;
+        int[] offsets = neighbours.offsets;
+        int shape = neighbours.shape(r, c);
+        for (int k = neighbours.start[shape], end = neighbours.start[shape + 1]; k < end; k++) {
+            int ni = i + offsets[k];
+            if (isFlagged(ni)) flags++;
+            else if (!isRevealed(ni)) targets.add(ni);
         }
-        return res;
+        if (flags != adj) targets.clear();
+        return revealAll(targets);
     }
 
-    /*Reveals all safe cells using a breadth-first search (BFS).*/
-    private void floodReveal(int r, int c) {
-        // Track which cells we've already processed in this expansion
-        boolean[][] visited = new boolean[size][size];
-
-        // Queue for BFS expansion, starting from the initial zero cell
-        ArrayDeque<int[]> dq = new ArrayDeque<int[]>();
-        dq.add(new int[]{r, c});
-        visited[r][c] = true;
-
-        // Process cells in BFS order
-        while (!dq.isEmpty()) {
-            int[] cur = dq.removeFirst();
-            int cr = cur[0], cc = cur[1];
+    /* reveals a list of squares (packed indices) as one move, with one change list and one
+     summary. Revealed and flagged targets are skipped. The first mine ends the move: targets
+     after it are left hidden. Otherwise the board ends up exactly as if each target had been
+     passed to reveal in turn. Every index is checked before anything changes, so an
+     out-of-range one rejects the whole move.
+     A zero target is flooded before the next target is looked at. Seeding one fill with all
+     zero targets does the same work (the revealed bit already stops a region from being
+     walked twice) but interleaves unrelated regions in the queue and measured slower. */
+    MoveSummary revealAll(IntList squares) {
+        for (int k = 0; k < squares.size(); k++) {
+            int i = squares.get(k);
+            if (i < 0 || i >= cells.length) throw new IllegalArgumentException("Out of bounds");
+        }
+        if (Metrics.ENABLED) Metrics.MOVES.increment();
+        changes.clear();
+        int before = revealedCount;
+        int mine = -1;
+        for (int k = 0; k < squares.size(); k++) {
+            int i = squares.get(k);
+            int v = cells[i];
+            if ((v & (REVEALED | FLAGGED)) != 0) continue;
+            cells[i] = (byte) (v | REVEALED);
+            revealedCount++;
+            if (trackChanges) changes.add(i);
+            if ((v & MINE) != 0) {
+                mine = i;
+                break;
+            }
+            if (tiles != null) tiles.revealedSafe(i / cols, i % cols);
+            if ((v & ADJACENT_MASK) == 0) {
+                flood(i);
+            }
+        }
+        return new MoveSummary(mine >= 0, mine, revealedCount - before);
+    }
 
-            // For each neighbor of the current cell
-            for (int[] nb : neighbors(cr, cc)) {
-                int nr = nb[0], nc = nb[1];
-                Cell cel = grid[nr][nc];
+    /*Reveals all safe cells using a breadth-first search (BFS).
+
+     The revealed bit doubles as the visited marker: a zero cell is queued exactly once, at the
+     moment this fill reveals it, and a zero cell revealed earlier already had its neighbours
+     revealed. So there is nothing to clear between calls and the hot loop does not allocate.
+     Flagged squares are left alone, so a flag also stops the fill.
+     With FloodFill.BITBOARD the same squares are opened by BitFlood instead, and an untouched
+     region of the ZeroRegions index is opened straight from its list (unless a mine has moved
+     since it was labelled).*/
+    private void flood(int i) {
+        if (zeroRegions != null && !zeroRegionsStale) {
+            int opened = zeroRegions.reveal(cells, i, trackChanges ? changes : null, tiles);
+            if (opened >= 0) {
+                revealedCount += opened;
+                if (Metrics.ENABLED) Metrics.FLOOD_CELLS.record(opened);
+                return;
+            }
+        }
+        if (bitFlood != null) {
+            int opened = bitFlood.fill(cells, i, trackChanges ? changes : null, tiles);
+            revealedCount += opened;
+            if (Metrics.ENABLED) Metrics.FLOOD_CELLS.record(opened);
+            return;
+        }
+        IntQueue queue = floodQueue;
+        queue.clear();
+        queue.add(i);
+        drainFlood(queue);
+    }
 
-                // Reveal neighbor if not already revealed
-                if (!cel.isRevealed()) {
-                    cel.setRevealed(true);
-                    revealedCount++;
-                }
-                // If this neighbor is also a zero cell and not visited yet, expand it
-                if (!visited[nr][nc] && !cel.isAMine() && cel.getAdjacent() == 0) {
-                    visited[nr][nc] = true;
-                    dq.addLast(new int[]{nr, nc});
+    //expands every revealed zero in the queue until no new zero turns up
+    private void drainFlood(IntQueue queue) {
+        int before = revealedCount;
+        int highWater = queue.size();
+        int[] offsets = neighbours.offsets, start = neighbours.start;
+        while (!queue.isEmpty()) {
+            int cur = queue.poll();
+            int shape = neighbours.shape(cur / cols, cur % cols);
+
+            for (int k = start[shape], end = start[shape + 1]; k < end; k++) {
+                int ni = cur + offsets[k];
+                int v = cells[ni];
+                if ((v & (REVEALED | FLAGGED)) != 0) continue;
+
+                cells[ni] = (byte) (v | REVEALED);
+                revealedCount++;
+                if (trackChanges) changes.add(ni);
+                if (tiles != null) tiles.revealedSafe(ni / cols, ni % cols);
+                // newly revealed zero cell: expand it as well
+                if ((v & (MINE | ADJACENT_MASK)) == 0) {
+                    queue.add(ni);
+                    if (Metrics.ENABLED && queue.size() > highWater) highWater = queue.size();
                 }
             }
         }
+        if (Metrics.ENABLED) {
+            Metrics.FLOOD_CELLS.record(revealedCount - before);
+            Metrics.FLOOD_QUEUE_HIGH_WATER.accumulate(highWater);
+        }
     }
 
 }
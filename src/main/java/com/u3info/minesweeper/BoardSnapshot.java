@@ -0,0 +1,198 @@
+package com.u3info.minesweeper;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ Versioned binary save format for boards and games in progress.
+
+ Layout (big-endian):
+    0  int   magic "MSWP"
+    4  int   format version
+    8  int   rows
+    12 int   cols
+    16 int   mine count
+    20 int   revealed count
+    24 long  seed the board was generated from (0 if unknown)
+    32 long  bytes per plane = ceil(rows * cols / 8)
+    40       mine plane, then revealed plane, then flag plane; one bit per square,
+             square i at bit (i & 7) of byte (i >>> 3)
+
+ Adjacent counts are not stored: they follow from the mine plane. Files are written and read
+ through memory-mapped FileChannels. open() only maps the file, so a huge board can be queried
+ square by square without building a Board; read() loads it completely.
+ */
+final class BoardSnapshot {
+
+    static final int MAGIC = 0x4D535750;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 40;
+    static final int PLANES = 3;
+
+    private BoardSnapshot() {
+    }
+
+    static void write(Board board, long seed, Path file) throws IOException {
+        //the header has no topology field, and a restored board recounts as a square grid
+        if (board.getTopology() != Topology.SQUARE) {
+            throw new IllegalArgumentException("Snapshots only support square topology boards");
+        }
+        int cells = board.getTotalCells();
+        long planeBytes = planeBytes(cells);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + PLANES * planeBytes);
+            buf.putInt(MAGIC).putInt(VERSION)
+                .putInt(board.getRows()).putInt(board.getCols())
+                .putInt(board.getTotalMines()).putInt(board.getRevealedCount())
+                .putLong(seed).putLong(planeBytes);
+            for (int i = 0; i < cells; i += 8) {
+                int bits = 0;
+                for (int k = 0; k < 8 && i + k < cells; k++) {
+                    if (board.isMine(i + k)) bits |= 1 << k;
+                }
+                buf.put((byte) bits);
+            }
+            for (int i = 0; i < cells; i += 8) {
+                int bits = 0;
+                for (int k = 0; k < 8 && i + k < cells; k++) {
+                    if (board.isRevealed(i + k)) bits |= 1 << k;
+                }
+                buf.put((byte) bits);
+            }
+            for (int i = 0; i < cells; i += 8) {
+                int bits = 0;
+                for (int k = 0; k < 8 && i + k < cells; k++) {
+                    if (board.isFlagged(i + k)) bits |= 1 << k;
+                }
+                buf.put((byte) bits);
+            }
+            buf.force();
+        }
+    }
+
+    static Board read(Path file) throws IOException {
+        try (View view = open(file)) {
+            return view.toBoard();
+        }
+    }
+
+    static View open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new View(ch);
+        } catch (IOException | RuntimeException ex) {
+            ch.close();
+            throw ex;
+        }
+    }
+
+    static long planeBytes(int cells) {
+        return (cells + 7L) >>> 3;
+    }
+
+    /* A mapped snapshot. Nothing is decoded up front; every query reads the bits it needs
+     from the mapping, so opening costs the same for any board size. */
+    static final class View implements AutoCloseable {
+        private final FileChannel channel;
+        private final MappedByteBuffer buf;
+        final int rows;
+        final int cols;
+        final int totalMines;
+        final int revealedCount;
+        final long seed;
+        private final int planeBytes;
+
+        private View(FileChannel channel) throws IOException {
+            this.channel = channel;
+            long size = channel.size();
+            if (size < HEADER_BYTES) throw new IOException("Not a board snapshot: file too short");
+            this.buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buf.getInt(0) != MAGIC) throw new IOException("Not a board snapshot: bad magic");
+            int version = buf.getInt(4);
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+            rows = buf.getInt(8);
+            cols = buf.getInt(12);
+            try {
+                Board.checkDimensions(rows, cols);
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Corrupt snapshot: " + ex.getMessage());
+            }
+            totalMines = buf.getInt(16);
+            revealedCount = buf.getInt(20);
+            seed = buf.getLong(24);
+            long plane = buf.getLong(32);
+            if (plane != planeBytes(rows * cols) || size != HEADER_BYTES + PLANES * plane) {
+                throw new IOException("Corrupt snapshot: size does not match header");
+            }
+            planeBytes = (int) plane;
+        }
+
+        boolean isMine(int r, int c) {
+            return bit(0, index(r, c));
+        }
+
+        boolean isRevealed(int r, int c) {
+            return bit(1, index(r, c));
+        }
+
+        boolean isFlagged(int r, int c) {
+            return bit(2, index(r, c));
+        }
+
+        /* -1 for a mine, otherwise counted from the mine plane around (r, c). The header has
+         no topology: write only accepts SQUARE boards, so this is the classic 3x3 neighbourhood. */
+        int adjacent(int r, int c) {
+            if (isMine(r, c)) return -1;
+            int cnt = 0;
+            for (int rr = Math.max(0, r - 1); rr <= Math.min(rows - 1, r + 1); rr++) {
+                for (int cc = Math.max(0, c - 1); cc <= Math.min(cols - 1, c + 1); cc++) {
+                    if (bit(0, rr * cols + cc)) cnt++;
+                }
+            }
+            return cnt;
+        }
+
+        //decodes the whole snapshot into a playable Board
+        Board toBoard() {
+            Board board = new Board(rows, cols);
+            int cells = rows * cols;
+            int mineBase = HEADER_BYTES, revealedBase = HEADER_BYTES + planeBytes;
+            int flagBase = HEADER_BYTES + 2 * planeBytes;
+            for (int b = 0; b < planeBytes; b++) {
+                int mines = buf.get(mineBase + b), revealed = buf.get(revealedBase + b);
+                int flags = buf.get(flagBase + b);
+                if ((mines | revealed | flags) == 0) continue;
+                for (int k = 0; k < 8; k++) {
+                    int i = (b << 3) + k;
+                    if (i >= cells) break;
+                    if ((mines & (1 << k)) != 0) board.setMine(i, true);
+                    if ((revealed & (1 << k)) != 0) board.setRevealed(i, true);
+                    if ((flags & (1 << k)) != 0) board.setFlagged(i, true);
+                }
+            }
+            board.computeAdjacents();
+            board.setTotalMines(totalMines);
+            board.setRevealedCount(revealedCount);
+            return board;
+        }
+
+        //same range check as Board, so a bad square never reads bits of another row
+        private int index(int r, int c) {
+            if (!(r >= 0 && r < rows && c >= 0 && c < cols)) throw new IllegalArgumentException("Out of bounds");
+            return r * cols + c;
+        }
+
+        private boolean bit(int plane, int i) {
+            return (buf.get(HEADER_BYTES + plane * planeBytes + (i >>> 3)) & (1 << (i & 7))) != 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -1,32 +1,44 @@
 package com.u3info.minesweeper;
 
-//Model class for cells
+//View of one square of a Board; the state itself lives in the board's packed byte array
 final class Cell {
-    private boolean mine;
-    private boolean revealed;
-    private int adjacent;
+    private final Board board;
+    private final int index;
+
+    Cell(Board board, int index) {
+        this.board = board;
+        this.index = index;
+    }
 
     boolean isAMine() {
-        return mine;
+        return board.isMine(index);
     }
 
     void setAMine(boolean mine) {
-        this.mine = mine;
+        board.setMine(index, mine);
     }
 
     boolean isRevealed() {
-        return revealed;
+        return board.isRevealed(index);
     }
 
     void setRevealed(boolean revealed) {
-        this.revealed = revealed;
+        board.setRevealed(index, revealed);
+    }
+
+    boolean isFlagged() {
+        return board.isFlagged(index);
+    }
+
+    void setFlagged(boolean flagged) {
+        board.setFlagged(index, flagged);
     }
 
     int getAdjacent() {
-        return adjacent;
+        return board.adjacent(index);
     }
 
     void setAdjacent(int adjacent) {
-        this.adjacent = adjacent;
+        board.setAdjacent(index, adjacent);
     }
 }
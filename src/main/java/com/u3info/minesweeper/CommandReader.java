@@ -0,0 +1,293 @@
+package com.u3info.minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ Reads moves and numbers straight from the bytes of a channel, replacing Scanner + CoordinateMapper.
+
+    -Input is read into one reusable ByteBuffer; tokens are split on whitespace and parsed in
+     place, so "A1" becomes row and column ints without creating a String. After warm-up a
+     move allocates nothing; only error messages build Strings.
+    -Pipelined input is fine: a single read may hold any number of moves, and next() hands
+     them out one at a time before reading again. A move split across reads is completed by
+     the next read.
+    -On a non-blocking channel next() returns NONE when no complete move is buffered yet and
+     the channel has nothing more to give, so a bot front end can come back when it is readable.
+     awaitInput() does that wait on a Selector for callers that would rather block.
+    -Moves are the controller's syntax: "A1" reveals, "!A1" flags, "*A1" chords and
+     "A1,B2,C3" is a batch. Bad input fails with the same messages CoordinateMapper uses.
+
+ Tokens with non-ASCII bytes take the slow path through CoordinateMapper so they are judged
+ exactly as before. nextInt and skipLine are for the prompts around a game and always wait
+ for their input, through awaitInput() on a non-blocking channel.
+ */
+final class CommandReader {
+
+    static final int NONE = -1;
+    static final int REVEAL = 0;
+    static final int FLAG = 1;
+    static final int CHORD = 2;
+    static final int BATCH = 3;
+
+    private static final byte FLAG_PREFIX = '!';
+    private static final byte CHORD_PREFIX = '*';
+    private static final byte SEPARATOR = ',';
+
+    private final ReadableByteChannel in;
+    private ByteBuffer buffer;
+    private byte[] bytes;
+    //unconsumed input is bytes[pos, limit)
+    private int pos;
+    private int limit;
+    private boolean eof;
+    //opened by the first awaitInput() on a non-blocking channel
+    private Selector selector;
+
+    //the current token, bytes[tokenStart, tokenEnd)
+    private int tokenStart;
+    private int tokenEnd;
+
+    private int row;
+    private int col;
+    private final IntList squares = new IntList(16);
+
+    CommandReader(ReadableByteChannel in) {
+        this(in, 8192);
+    }
+
+    CommandReader(ReadableByteChannel in, int bufferSize) {
+        this.in = in;
+        this.bytes = new byte[Math.max(16, bufferSize)];
+        this.buffer = ByteBuffer.wrap(bytes);
+    }
+
+    /* parses the next move for a rows x cols board and returns its kind, or NONE when the
+     channel is non-blocking and no complete move has arrived yet. A bad move is consumed
+     before its IllegalArgumentException is thrown, so the next call moves on.
+     Throws NoSuchElementException at the end of input, as Scanner.next did. */
+    int next(int rows, int cols) throws IOException {
+        if (!nextToken()) return NONE;
+        byte first = bytes[tokenStart];
+        if (first == FLAG_PREFIX || first == CHORD_PREFIX) {
+            parseSquare(tokenStart + 1, tokenEnd, rows, cols);
+            return first == FLAG_PREFIX ? FLAG : CHORD;
+        }
+        int comma = indexOf(SEPARATOR, tokenStart, tokenEnd);
+        if (comma < 0) {
+            parseSquare(tokenStart, tokenEnd, rows, cols);
+            return REVEAL;
+        }
+        //"A1,B2,C3" into packed indices; empty parts are skipped and any bad square rejects the move
+        squares.clear();
+        int from = tokenStart;
+        while (from <= tokenEnd) {
+            int to = comma < 0 ? tokenEnd : comma;
+            if (to > from) {
+                parseSquare(from, to, rows, cols);
+                squares.add(row * cols + col);
+            }
+            from = to + 1;
+            comma = indexOf(SEPARATOR, from, tokenEnd);
+        }
+        if (squares.size() == 0) throw new IllegalArgumentException("Invalid coordinate: " + token());
+        return BATCH;
+    }
+
+    //square of the last REVEAL, FLAG or CHORD
+    int row() {
+        return row;
+    }
+
+    int col() {
+        return col;
+    }
+
+    //packed indices (row * cols + col) of the last BATCH; reused by the next call
+    IntList squares() {
+        return squares;
+    }
+
+    //the next token as an int, with Integer.parseInt's rules and NumberFormatException
+    int nextInt() throws IOException {
+        awaitToken();
+        if (hasNonAscii(tokenStart, tokenEnd)) return Integer.parseInt(token());
+        long v = parseDecimal(tokenStart, tokenEnd);
+        if (v == Long.MIN_VALUE) throw new NumberFormatException("For input string: \"" + token() + "\"");
+        return (int) v;
+    }
+
+    //consumes the rest of the current line, like Scanner.nextLine
+    void skipLine() throws IOException {
+        boolean any = false;
+        while (true) {
+            for (; pos < limit; pos++) {
+                any = true;
+                if (bytes[pos] == '\n') {
+                    pos++;
+                    return;
+                }
+            }
+            if (eof) {
+                if (any) return;
+                throw new NoSuchElementException("No line found");
+            }
+            if (!fill()) awaitInput();
+        }
+    }
+
+    /* blocks until a non-blocking channel is readable again, after next() returned NONE.
+     Returns at once on any other channel, whose reads already wait. */
+    void awaitInput() throws IOException {
+        if (!(in instanceof SelectableChannel)) return;
+        SelectableChannel channel = (SelectableChannel) in;
+        if (channel.isBlocking()) return;
+        if (selector == null) {
+            selector = Selector.open();
+            channel.register(selector, SelectionKey.OP_READ);
+        }
+        selector.select();
+        selector.selectedKeys().clear();
+    }
+
+    //releases the Selector of awaitInput(), if one was opened; the channel stays open
+    void close() throws IOException {
+        if (selector != null) {
+            selector.close();
+            selector = null;
+        }
+    }
+
+    private void awaitToken() throws IOException {
+        while (!nextToken()) awaitInput();
+    }
+
+    /* finds the next whitespace-delimited token. A token is complete once a delimiter
+     follows it or the input has ended; until then more is read. */
+    private boolean nextToken() throws IOException {
+        while (true) {
+            while (pos < limit && isDelimiter(bytes[pos])) pos++;
+            int end = pos;
+            while (end < limit && !isDelimiter(bytes[end])) end++;
+            if (end < limit || (eof && end > pos)) {
+                tokenStart = pos;
+                tokenEnd = end;
+                pos = end;
+                return true;
+            }
+            if (eof) throw new NoSuchElementException();
+            if (!fill()) return false;
+        }
+    }
+
+    /* moves the unconsumed bytes to the front (growing the buffer if a single token fills
+     it) and reads once. Returns false when a non-blocking channel had nothing to give. */
+    private boolean fill() throws IOException {
+        int pending = limit - pos;
+        if (pending == bytes.length) {
+            byte[] grown = new byte[bytes.length * 2];
+            System.arraycopy(bytes, pos, grown, 0, pending);
+            bytes = grown;
+            buffer = ByteBuffer.wrap(bytes);
+        } else if (pos > 0) {
+            System.arraycopy(bytes, pos, bytes, 0, pending);
+        }
+        pos = 0;
+        limit = pending;
+        buffer.limit(bytes.length).position(limit);
+        int n = in.read(buffer);
+        if (n < 0) {
+            eof = true;
+            return true;
+        }
+        limit = buffer.position();
+        return n > 0;
+    }
+
+    /* CoordinateMapper.parse over bytes[from, to): sets row and col or throws with the same
+     message it would. */
+    private void parseSquare(int from, int to, int rows, int cols) {
+        if (hasNonAscii(from, to)) {
+            CoordinateMapper at = CoordinateMapper.parse(new String(bytes, from, to - from, StandardCharsets.UTF_8), rows, cols);
+            row = at.row;
+            col = at.col;
+            return;
+        }
+        if (to - from < 2) {
+            throw new IllegalArgumentException("Invalid coordinate: " + new String(bytes, from, to - from, StandardCharsets.US_ASCII));
+        }
+        if (!isAsciiLetter(bytes[from])) throw new IllegalArgumentException("Row must be a letter");
+
+        //bijective base 26, as in CoordinateMapper
+        int p = from;
+        long label = 0;
+        while (p < to && isAsciiLetter(bytes[p])) {
+            if (label <= Board.MAX_SIDE) {
+                label = label * 26 + ((bytes[p] & 0xDF) - 'A' + 1);
+            }
+            p++;
+        }
+        long r = label - 1;
+        if (r < 0 || r >= rows) throw new IllegalArgumentException("Row out of range");
+
+        long number = parseDecimal(p, to);
+        if (number == Long.MIN_VALUE) throw new IllegalArgumentException("Column must be a number");
+        long c = number - 1;
+        if (c < 0 || c >= cols) throw new IllegalArgumentException("Column out of range");
+        row = (int) r;
+        col = (int) c;
+    }
+
+    //Integer.parseInt over ASCII bytes[from, to); Long.MIN_VALUE when it would throw
+    private long parseDecimal(int from, int to) {
+        int p = from;
+        boolean negative = false;
+        if (p < to && (bytes[p] == '-' || bytes[p] == '+')) {
+            negative = bytes[p] == '-';
+            p++;
+        }
+        if (p == to) return Long.MIN_VALUE;
+        long v = 0;
+        for (; p < to; p++) {
+            int d = bytes[p] - '0';
+            if (d < 0 || d > 9) return Long.MIN_VALUE;
+            v = v * 10 + d;
+            if (v > (long) Integer.MAX_VALUE + 1) return Long.MIN_VALUE;
+        }
+        if (!negative && v > Integer.MAX_VALUE) return Long.MIN_VALUE;
+        return negative ? -v : v;
+    }
+
+    private String token() {
+        return new String(bytes, tokenStart, tokenEnd - tokenStart, StandardCharsets.UTF_8);
+    }
+
+    private int indexOf(byte b, int from, int to) {
+        for (int p = from; p < to; p++) {
+            if (bytes[p] == b) return p;
+        }
+        return -1;
+    }
+
+    private boolean hasNonAscii(int from, int to) {
+        for (int p = from; p < to; p++) {
+            if (bytes[p] < 0) return true;
+        }
+        return false;
+    }
+
+    //ASCII whitespace and control characters; bytes of multi-byte UTF-8 characters are negative
+    private static boolean isDelimiter(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    private static boolean isAsciiLetter(byte b) {
+        return (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z');
+    }
+}
@@ -0,0 +1,152 @@
+package com.u3info.minesweeper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ Shared board for cooperative play: any number of threads may call reveal at the same time.
+
+    -Same packed byte-per-cell layout as Board; mines and counts are fixed once created.
+    -Flags are honoured as on Board: a flagged square is never revealed, by a click or a flood,
+     and toggleFlag flips the bit by compare-and-set, so it cannot race a reveal of the square.
+    -Flood fills walk the board's NeighbourTable, so every Topology fills as Board.reveal does.
+    -A square is revealed by compare-and-set of its REVEALED bit, so exactly one thread wins
+     each square: the winner counts it and, for a zero, expands it in its own flood fill.
+    -Overlapping flood fills therefore split the work between them instead of repeating it,
+     and a square is never counted twice.
+    -Each reveal adds its own tally to the shared counter once, so getRevealedCount is exact
+     whenever no reveal is in flight.
+ */
+final class ConcurrentBoard {
+
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final int rows;
+    private final int cols;
+    private final int totalMines;
+    private final byte[] cells;
+    private final NeighbourTable neighbours;
+    private final AtomicInteger revealedCount = new AtomicInteger();
+    //each thread keeps its own flood queue, so concurrent fills never share scratch state
+    private final ThreadLocal<IntQueue> floodQueue = ThreadLocal.withInitial(() -> new IntQueue(64));
+
+    //takes a copy of a board whose mines are placed; squares already revealed stay revealed
+    ConcurrentBoard(Board board) {
+        this.rows = board.getRows();
+        this.cols = board.getCols();
+        this.totalMines = board.getTotalMines();
+        this.cells = board.copyCells();
+        this.neighbours = board.neighbours();
+        this.revealedCount.set(board.getRevealedCount());
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    int getCols() {
+        return cols;
+    }
+
+    int getTotalCells() {
+        return rows * cols;
+    }
+
+    int getRevealedCount() {
+        return revealedCount.get();
+    }
+
+    boolean allNonMinesRevealed() {
+        return revealedCount.get() == getTotalCells() - totalMines;
+    }
+
+    boolean isRevealed(int i) {
+        return (load(i) & Board.REVEALED) != 0;
+    }
+
+    boolean isFlagged(int i) {
+        return (load(i) & Board.FLAGGED) != 0;
+    }
+
+    boolean isMine(int i) {
+        return (load(i) & Board.MINE) != 0;
+    }
+
+    int adjacent(int i) {
+        int v = load(i);
+        return (v & Board.MINE) != 0 ? -1 : v & Board.ADJACENT_MASK;
+    }
+
+    Board.RevealResult reveal(int r, int c) {
+        if (!(r >= 0 && r < rows && c >= 0 && c < cols)) throw new IllegalArgumentException("Out of bounds");
+        int i = r * cols + c;
+        int v = claim(i);
+        if (v < 0) {
+            if (isFlagged(i)) throw new IllegalArgumentException("Square is flagged");
+            return Board.RevealResult.alreadyRevealed(adjacent(i));
+        }
+        if ((v & Board.MINE) != 0) {
+            revealedCount.incrementAndGet();
+            return Board.RevealResult.mine();
+        }
+        int adjacent = v & Board.ADJACENT_MASK;
+        int revealed = 1;
+        if (adjacent == 0) {
+            revealed += floodReveal(i);
+        }
+        revealedCount.addAndGet(revealed);
+        return Board.RevealResult.safe(adjacent);
+    }
+
+    //flags or unflags a hidden square, as Board.toggleFlag; returns whether it is now flagged
+    boolean toggleFlag(int r, int c) {
+        if (!(r >= 0 && r < rows && c >= 0 && c < cols)) throw new IllegalArgumentException("Out of bounds");
+        int i = r * cols + c;
+        while (true) {
+            byte v = (byte) CELLS.getAcquire(cells, i);
+            if ((v & Board.REVEALED) != 0) throw new IllegalArgumentException("Square is already revealed");
+            byte flipped = (byte) (v ^ Board.FLAGGED);
+            if (CELLS.compareAndSet(cells, i, v, flipped)) return (flipped & Board.FLAGGED) != 0;
+        }
+    }
+
+    //same BFS as Board.drainFlood, but squares are claimed by CAS; returns how many this call won
+    private int floodReveal(int seed) {
+        IntQueue queue = floodQueue.get();
+        queue.clear();
+        queue.add(seed);
+        int revealed = 0;
+        int[] offsets = neighbours.offsets, start = neighbours.start;
+
+        while (!queue.isEmpty()) {
+            int cur = queue.poll();
+            int shape = neighbours.shape(cur / cols, cur % cols);
+
+            for (int k = start[shape], end = start[shape + 1]; k < end; k++) {
+                int ni = cur + offsets[k];
+                int v = claim(ni);
+                if (v < 0) continue;
+                revealed++;
+                if ((v & (Board.MINE | Board.ADJACENT_MASK)) == 0) {
+                    queue.add(ni);
+                }
+            }
+        }
+        return revealed;
+    }
+
+    /* sets REVEALED on square i; returns the previous cell byte, or -1 if someone else got
+     there first or the square is flagged */
+    private int claim(int i) {
+        while (true) {
+            byte v = (byte) CELLS.getAcquire(cells, i);
+            if ((v & (Board.REVEALED | Board.FLAGGED)) != 0) return -1;
+            if (CELLS.compareAndSet(cells, i, v, (byte) (v | Board.REVEALED))) return v & 0xFF;
+        }
+    }
+
+    private int load(int i) {
+        return (byte) CELLS.getAcquire(cells, i);
+    }
+}
@@ -2,6 +2,9 @@ package com.u3info.minesweeper;
 
 /* this class takes a string like "A1" from the user and convert it into row and column
  indexes that the program can work with.
+
+ Rows use spreadsheet-style letters so boards can have more than 26 rows:
+ A..Z are rows 0-25, AA..AZ are 26-51, BA.. follow, then ZZ, AAA and so on.
  */
 
 final class CoordinateMapper {
@@ -14,6 +17,10 @@ final class CoordinateMapper {
     }
 
     static CoordinateMapper parse(String token, int size) {
+        return parse(token, size, size);
+    }
+
+    static CoordinateMapper parse(String token, int rows, int cols) {
         if (token == null) throw new IllegalArgumentException("Null input");
         String t = token.trim();
 
@@ -22,11 +29,20 @@ final class CoordinateMapper {
 
         if (!Character.isLetter(first)) throw new IllegalArgumentException("Row must be a letter");
 
-        int row = Character.toUpperCase(first) - 'A';
+        //bijective base 26: "A" -> 1, "Z" -> 26, "AA" -> 27; stop counting once we are past any board
+        int end = 0;
+        long label = 0;
+        while (end < t.length() && isAsciiLetter(t.charAt(end))) {
+            if (label <= Board.MAX_SIDE) {
+                label = label * 26 + (Character.toUpperCase(t.charAt(end)) - 'A' + 1);
+            }
+            end++;
+        }
+        long row = label - 1;
 
-        if (row < 0 || row >= size) throw new IllegalArgumentException("Row out of range");
+        if (row < 0 || row >= rows) throw new IllegalArgumentException("Row out of range");
 
-        String num = t.substring(1);
+        String num = t.substring(end);
         int col;
         try {
             col = Integer.parseInt(num) - 1;
@@ -34,7 +50,24 @@ final class CoordinateMapper {
             throw new IllegalArgumentException("Column must be a number");
         }
 
-        if (col < 0 || col >= size) throw new IllegalArgumentException("Column out of range");
-        return new CoordinateMapper(row, col);
+        if (col < 0 || col >= cols) throw new IllegalArgumentException("Column out of range");
+        return new CoordinateMapper((int) row, col);
+    }
+
+    //inverse of the row part of parse: 0 -> "A", 25 -> "Z", 26 -> "AA"
+    static String rowLabel(int row) {
+        char[] buf = new char[8];
+        int pos = buf.length;
+        int n = row + 1;
+        while (n > 0) {
+            n--;
+            buf[--pos] = (char) ('A' + n % 26);
+            n /= 26;
+        }
+        return new String(buf, pos, buf.length - pos);
+    }
+
+    private static boolean isAsciiLetter(char ch) {
+        return (ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z');
     }
 }
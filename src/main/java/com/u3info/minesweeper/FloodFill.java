@@ -0,0 +1,14 @@
+package com.u3info.minesweeper;
+
+/* How Board opens the region around a revealed zero. Both open exactly the same squares. */
+enum FloodFill {
+    /* breadth-first search from a reusable int queue, one square at a time. Cost follows the
+     size of the region, so it is the right choice for the small regions of normal play. */
+    BFS,
+
+    /* BitFlood: zero squares and hidden squares as one long per 64 columns, the region grown
+     a row of words at a time with shifts and masks until nothing changes. Every row the
+     region touches is converted to bits first, so it pays off on large open areas.
+     Square topology only; changes are listed in row-major order instead of BFS order. */
+    BITBOARD
+}
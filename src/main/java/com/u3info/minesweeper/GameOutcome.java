@@ -0,0 +1,8 @@
+package com.u3info.minesweeper;
+
+enum GameOutcome {
+    WON,
+    LOST,
+    //the script ran out or the strategy gave up before the game was decided
+    UNFINISHED
+}
@@ -0,0 +1,180 @@
+package com.u3info.minesweeper;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ TCP server hosting one console game per connection.
+
+    -Accept connections and run each session's MinesweepAppController.run on its own
+     (virtual, see VirtualThreads) thread, with a fresh controller and renderer per session.
+    -Keep a registry of open sessions so they can be counted and closed on shutdown.
+    -Refuse connections beyond maxSessions, which bounds the number of live boards. Without
+     virtual threads (Java 17) the limit is also capped at VirtualThreads.PLATFORM_THREADS, so
+     the server never starts one OS thread per connection for thousands of connections.
+    -Close sessions whose player sends nothing for idleTimeoutMillis.
+
+ The protocol is the console game itself: plain text lines in both directions.
+ Usage: GameServer [port] [maxSessions] [idleTimeoutSeconds] [maxGridSize]
+ */
+public final class GameServer implements AutoCloseable {
+
+    static final String BUSY_MESSAGE = "Server busy, try again later.";
+
+    private final int idleTimeoutMillis;
+    private final int maxGridSize;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessionThreads;
+    private final Semaphore slots;
+    private final int maxSessions;
+    private final Map<Long, Socket> sessions = new ConcurrentHashMap<Long, Socket>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile boolean closed;
+
+    GameServer(int port, int maxSessions, int idleTimeoutMillis, int maxGridSize) throws IOException {
+        if (maxSessions < 1) throw new IllegalArgumentException("maxSessions must be at least 1");
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxGridSize = maxGridSize;
+        this.maxSessions = VirtualThreads.sessionLimit(maxSessions);
+        this.slots = new Semaphore(this.maxSessions);
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(port), Math.min(maxSessions, 4096));
+        this.sessionThreads = VirtualThreads.perTaskExecutor("minesweeper-session");
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    //the session limit in force, after the platform-thread cap
+    int maxSessions() {
+        return maxSessions;
+    }
+
+    int activeSessions() {
+        return sessions.size();
+    }
+
+    long rejectedSessions() {
+        return rejected.get();
+    }
+
+    //accept loop; returns once the server is closed
+    void serve() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException ex) {
+                if (closed) return;
+                continue;
+            }
+            if (!slots.tryAcquire()) {
+                rejected.incrementAndGet();
+                refuse(socket);
+                continue;
+            }
+            long id = nextId.incrementAndGet();
+            sessions.put(id, socket);
+            sessionThreads.execute(() -> runSession(id, socket));
+        }
+    }
+
+    void start() {
+        Thread acceptor = new Thread(this::serve, "minesweeper-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void runSession(long id, Socket socket) {
+        try {
+            socket.setSoTimeout(idleTimeoutMillis);
+            socket.setTcpNoDelay(true);
+            PrintStream out = new PrintStream(new BufferedOutputStream(socket.getOutputStream(), 8192), false);
+            //a read timeout or closed socket surfaces as an IOException, which ends run() cleanly
+            new MinesweepAppController(false, maxGridSize).run(new FlushBeforeRead(socket.getInputStream(), out), out);
+        } catch (IOException ex) {
+            //connection dropped; nothing to report to a player who is gone
+        } finally {
+            sessions.remove(id);
+            closeQuietly(socket);
+            slots.release();
+        }
+    }
+
+    private static void refuse(Socket socket) {
+        try {
+            socket.getOutputStream().write((BUSY_MESSAGE + System.lineSeparator()).getBytes());
+        } catch (IOException ex) {
+            //refused anyway
+        } finally {
+            closeQuietly(socket);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(serverSocket);
+        for (Socket socket : sessions.values()) {
+            closeQuietly(socket);
+        }
+        sessionThreads.shutdownNow();
+    }
+
+    private static void closeQuietly(AutoCloseable c) {
+        try {
+            c.close();
+        } catch (Exception ex) {
+            //already closed
+        }
+    }
+
+    /* the controller prints a prompt and then blocks reading the answer, so everything
+     printed so far is flushed right before each read. Output can then stay fully buffered
+     instead of sending one packet per print call. */
+    private static final class FlushBeforeRead extends FilterInputStream {
+        private final PrintStream out;
+
+        FlushBeforeRead(InputStream in, PrintStream out) {
+            super(in);
+            this.out = out;
+        }
+
+        @Override
+        public int read() throws IOException {
+            out.flush();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            out.flush();
+            return super.read(b, off, len);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        int maxSessions = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int idleSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 300;
+        int maxGrid = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        GameServer server = new GameServer(port, maxSessions, idleSeconds * 1000, maxGrid);
+        Metrics.startIfEnabled(System.err);
+        System.out.println("Minesweeper server on port " + server.getPort() + ", up to " + server.maxSessions()
+            + " sessions, " + (VirtualThreads.available() ? "virtual" : "platform") + " threads");
+        server.serve();
+    }
+}
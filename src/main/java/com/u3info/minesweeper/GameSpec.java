@@ -0,0 +1,38 @@
+package com.u3info.minesweeper;
+
+/* One headless game for BatchRunner: board shape, mine count and seed, plus either a fixed
+ script of moves (packed indices, row * cols + col) or a strategy that picks them.
+ */
+final class GameSpec {
+    final int rows;
+    final int cols;
+    final int mines;
+    final long seed;
+    final MinePlacement placement;
+    final int[] script;
+    final MoveStrategy strategy;
+
+    private GameSpec(int rows, int cols, int mines, long seed, MinePlacement placement,
+                     int[] script, MoveStrategy strategy) {
+        Board.checkDimensions(rows, cols);
+        int max = Board.maxMines(rows, cols);
+        if (mines < 1 || mines > max) {
+            throw new IllegalArgumentException("Mines must be between 1 and " + max);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.seed = seed;
+        this.placement = placement;
+        this.script = script;
+        this.strategy = strategy;
+    }
+
+    static GameSpec scripted(int rows, int cols, int mines, long seed, int[] moves) {
+        return new GameSpec(rows, cols, mines, seed, MinePlacement.FLOYD, moves.clone(), null);
+    }
+
+    static GameSpec played(int rows, int cols, int mines, long seed, MoveStrategy strategy) {
+        return new GameSpec(rows, cols, mines, seed, MinePlacement.FLOYD, null, strategy);
+    }
+}
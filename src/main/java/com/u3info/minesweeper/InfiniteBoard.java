@@ -0,0 +1,236 @@
+package com.u3info.minesweeper;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ Board without edges, built lazily from a seed.
+
+    -The plane is cut into 64x64 chunks. A chunk's mines are a pure function of
+     (seed, chunk row, chunk col): Floyd's sampling of a fixed count per chunk, drawn from a
+     SplittableRandom seeded with those three values. Nothing exists until it is touched.
+    -A chunk is materialized (packed cells as in Board, counts included) the first time a
+     square in it is read or revealed. Counts on its edges come from regenerating the mines of
+     the 8 chunks around it, which never materializes them.
+    -At most maxLiveChunks chunks stay materialized; the least recently used one is dropped
+     beyond that. Squares revealed in a dropped chunk are parked as a 512-byte bitset and
+     restored when the chunk comes back, so nothing a player did is lost.
+    -Parked bitsets are never dropped, since they are the only record of those reveals, so
+     they grow with the area a player has uncovered: about 600 bytes with the map entry for
+     every evicted chunk that has a revealed square. Chunks with nothing revealed are not parked.
+    -Flood fills cross chunk boundaries. Because zero regions can be unbounded on a sparse
+     plane, one reveal opens at most maxFloodCells squares besides the one clicked, stopping
+     the moment it reaches the cap. The zeros it opened but did not fully expand are not
+     remembered; they stay open, and revealing one of them again runs a new fill from there.
+     Revealing any other open zero opens nothing, its neighbours being open already.
+
+ Coordinates are any int row/col, negative included. Not thread-safe.
+ */
+final class InfiniteBoard {
+
+    static final int CHUNK_SHIFT = 6;
+    static final int CHUNK = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK - 1;
+    static final int CHUNK_CELLS = CHUNK * CHUNK;
+
+    private final long seed;
+    private final int minesPerChunk;
+    private final int maxFloodCells;
+    private final Map<Long, byte[]> live;
+    //revealed squares of evicted chunks; unbounded on purpose, see the class comment
+    private final Map<Long, long[]> parked = new HashMap<Long, long[]>();
+    private final LongQueue floodQueue = new LongQueue(64);
+    private long revealedCount;
+    private long generatedChunks;
+
+    //one-entry cache in front of the map; flood fills mostly stay inside one chunk
+    private long lastKey = Long.MIN_VALUE;
+    private byte[] lastChunk;
+
+    InfiniteBoard(long seed, double density, final int maxLiveChunks, int maxFloodCells) {
+        if (density <= 0 || density > Board.MAX_MINE_PERCENT / 100.0) {
+            throw new IllegalArgumentException("Density must be above 0 and at most 0." + Board.MAX_MINE_PERCENT);
+        }
+        if (maxLiveChunks < 1 || maxFloodCells < 1) throw new IllegalArgumentException("Limits must be positive");
+        this.seed = seed;
+        this.minesPerChunk = Math.max(1, (int) Math.round(CHUNK_CELLS * density));
+        this.maxFloodCells = maxFloodCells;
+        this.live = new LinkedHashMap<Long, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                if (size() <= maxLiveChunks) return false;
+                park(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    long getRevealedCount() {
+        return revealedCount;
+    }
+
+    int liveChunks() {
+        return live.size();
+    }
+
+    int parkedChunks() {
+        return parked.size();
+    }
+
+    //how many chunks have been materialized so far, counting re-materializations after eviction
+    long generatedChunks() {
+        return generatedChunks;
+    }
+
+    boolean isMine(int r, int c) {
+        return (cell(r, c) & Board.MINE) != 0;
+    }
+
+    boolean isRevealed(int r, int c) {
+        return (cell(r, c) & Board.REVEALED) != 0;
+    }
+
+    int adjacent(int r, int c) {
+        int v = cell(r, c);
+        return (v & Board.MINE) != 0 ? -1 : v & Board.ADJACENT_MASK;
+    }
+
+    Board.RevealResult reveal(int r, int c) {
+        byte[] chunk = chunk(r, c);
+        int li = local(r, c);
+        int v = chunk[li];
+        if ((v & Board.REVEALED) != 0) {
+            //an open zero may sit on the edge of a fill that hit maxFloodCells: expand it now
+            if ((v & (Board.MINE | Board.ADJACENT_MASK)) == 0) floodReveal(r, c);
+            return Board.RevealResult.alreadyRevealed(adjacentOf(v));
+        }
+        chunk[li] = (byte) (v | Board.REVEALED);
+        revealedCount++;
+        if ((v & Board.MINE) != 0) return Board.RevealResult.mine();
+        if ((v & Board.ADJACENT_MASK) == 0) floodReveal(r, c);
+        return Board.RevealResult.safe(v & Board.ADJACENT_MASK);
+    }
+
+    private void floodReveal(int r, int c) {
+        LongQueue queue = floodQueue;
+        queue.clear();
+        queue.add(pack(r, c));
+        int opened = 0;
+        while (!queue.isEmpty()) {
+            long cur = queue.poll();
+            int cr = (int) (cur >> 32), cc = (int) cur;
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    if (dr == 0 && dc == 0) continue;
+                    int nr = cr + dr, nc = cc + dc;
+                    //the chunk is looked up for every square: opening a new chunk may evict this one
+                    byte[] chunk = chunk(nr, nc);
+                    int li = local(nr, nc);
+                    int v = chunk[li];
+                    if ((v & Board.REVEALED) != 0) continue;
+                    chunk[li] = (byte) (v | Board.REVEALED);
+                    revealedCount++;
+                    opened++;
+                    if ((v & (Board.MINE | Board.ADJACENT_MASK)) == 0) queue.add(pack(nr, nc));
+                    //the cap is exact: stop mid-square rather than finish its neighbours
+                    if (opened >= maxFloodCells) return;
+                }
+            }
+        }
+    }
+
+    private int cell(int r, int c) {
+        return chunk(r, c)[local(r, c)];
+    }
+
+    private byte[] chunk(int r, int c) {
+        long key = pack(r >> CHUNK_SHIFT, c >> CHUNK_SHIFT);
+        if (key == lastKey) return lastChunk;
+        byte[] chunk = live.get(key);
+        if (chunk == null) {
+            chunk = materialize(r >> CHUNK_SHIFT, c >> CHUNK_SHIFT);
+            live.put(key, chunk);
+        }
+        lastKey = key;
+        lastChunk = chunk;
+        return chunk;
+    }
+
+    private byte[] materialize(int cr, int cc) {
+        generatedChunks++;
+        long[][] mines = new long[9][];
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                mines[(dr + 1) * 3 + dc + 1] = mineLayer(cr + dr, cc + dc);
+            }
+        }
+        byte[] cells = new byte[CHUNK_CELLS];
+        for (int lr = 0; lr < CHUNK; lr++) {
+            for (int lc = 0; lc < CHUNK; lc++) {
+                int cnt = 0;
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        if ((dr != 0 || dc != 0) && mineAt(mines, lr + dr, lc + dc)) cnt++;
+                    }
+                }
+                cells[lr * CHUNK + lc] = (byte) (cnt | (mineAt(mines, lr, lc) ? Board.MINE : 0));
+            }
+        }
+        long[] revealed = parked.remove(pack(cr, cc));
+        if (revealed != null) {
+            for (int i = 0; i < CHUNK_CELLS; i++) {
+                if ((revealed[i >>> 6] & (1L << i)) != 0) cells[i] |= Board.REVEALED;
+            }
+        }
+        return cells;
+    }
+
+    //mine bits of chunk (cr, cc), one long per chunk row; depends only on seed and position
+    private long[] mineLayer(int cr, int cc) {
+        SplittableRandom rng = new SplittableRandom(seed ^ (cr * 0x9E3779B97F4A7C15L) ^ (cc * 0xC2B2AE3D27D4EB4FL));
+        long[] bits = new long[CHUNK];
+        for (int j = CHUNK_CELLS - minesPerChunk; j < CHUNK_CELLS; j++) {
+            int t = rng.nextInt(j + 1);
+            int i = (bits[t >>> CHUNK_SHIFT] & (1L << t)) != 0 ? j : t;
+            bits[i >>> CHUNK_SHIFT] |= 1L << i;
+        }
+        return bits;
+    }
+
+    //lr/lc may be -1 or CHUNK, meaning a square in the neighbouring chunk
+    private static boolean mineAt(long[][] mines, int lr, int lc) {
+        int dr = lr < 0 ? 0 : lr < CHUNK ? 1 : 2;
+        int dc = lc < 0 ? 0 : lc < CHUNK ? 1 : 2;
+        long[] layer = mines[dr * 3 + dc];
+        return (layer[lr & CHUNK_MASK] & (1L << (lc & CHUNK_MASK))) != 0;
+    }
+
+    private void park(long key, byte[] cells) {
+        if (key == lastKey) {
+            lastKey = Long.MIN_VALUE;
+            lastChunk = null;
+        }
+        long[] revealed = null;
+        for (int i = 0; i < CHUNK_CELLS; i++) {
+            if ((cells[i] & Board.REVEALED) != 0) {
+                if (revealed == null) revealed = new long[CHUNK];
+                revealed[i >>> 6] |= 1L << i;
+            }
+        }
+        if (revealed != null) parked.put(key, revealed);
+    }
+
+    private static int local(int r, int c) {
+        return (r & CHUNK_MASK) * CHUNK + (c & CHUNK_MASK);
+    }
+
+    private static long pack(int hi, int lo) {
+        return ((long) hi << 32) | (lo & 0xFFFFFFFFL);
+    }
+
+    private static int adjacentOf(int v) {
+        return (v & Board.MINE) != 0 ? -1 : v & Board.ADJACENT_MASK;
+    }
+}
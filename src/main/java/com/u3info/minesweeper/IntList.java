@@ -0,0 +1,35 @@
+package com.u3info.minesweeper;
+
+/* Growable list of primitive ints. Like IntQueue it only grows, so clearing and refilling
+ it after warm-up does not allocate.
+ */
+final class IntList {
+    private int[] buf;
+    private int size;
+
+    IntList(int initialCapacity) {
+        buf = new int[Math.max(16, initialCapacity)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int k) {
+        if (k >= size) throw new IndexOutOfBoundsException("Index " + k + " of " + size);
+        return buf[k];
+    }
+
+    void add(int v) {
+        if (size == buf.length) {
+            int[] next = new int[buf.length * 2];
+            System.arraycopy(buf, 0, next, 0, size);
+            buf = next;
+        }
+        buf[size++] = v;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
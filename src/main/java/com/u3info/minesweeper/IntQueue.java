@@ -0,0 +1,59 @@
+package com.u3info.minesweeper;
+
+/* FIFO queue of primitive ints backed by a ring buffer.
+ The buffer only grows, so once it has reached the size a board needs it can be reused
+ by every later flood fill without allocating.
+ */
+final class IntQueue {
+    private int[] buf;
+    private int head;
+    private int size;
+
+    IntQueue(int initialCapacity) {
+        buf = new int[Math.max(16, initialCapacity)];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    //length of the backing buffer; it only changes when the queue grows
+    int capacity() {
+        return buf.length;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    void add(int v) {
+        if (size == buf.length) grow();
+        int tail = head + size;
+        if (tail >= buf.length) tail -= buf.length;
+        buf[tail] = v;
+        size++;
+    }
+
+    int poll() {
+        int v = buf[head];
+        head++;
+        if (head == buf.length) head = 0;
+        size--;
+        return v;
+    }
+
+    //doubles the buffer and unwraps the ring so the live entries start at 0
+    private void grow() {
+        int[] next = new int[buf.length * 2];
+        int firstPart = Math.min(size, buf.length - head);
+        System.arraycopy(buf, head, next, 0, firstPart);
+        System.arraycopy(buf, 0, next, firstPart, size - firstPart);
+        buf = next;
+        head = 0;
+    }
+}
@@ -0,0 +1,158 @@
+package com.u3info.minesweeper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+/**
+ A game whose moves are journaled so it can be rebuilt after a crash.
+
+    -Every move (reveal, flag toggle, chord) is applied to the board and appended to the
+     MoveJournal.
+    -Every snapshotInterval moves the board is saved as a BoardSnapshot named after the move
+     count (game-<id>-<moves>.snap); the previous snapshot is then deleted.
+    -recover loads the newest snapshot, or regenerates the board from its seed when there is
+     none, and replays only the moves after it. Recovery work is therefore bounded by the
+     snapshot interval, not by the length of the game.
+
+ Before a snapshot is taken the game's journal is committed, so a snapshot never claims more
+ moves than the journal holds.
+ */
+final class JournaledGame {
+
+    private final MoveJournal journal;
+    private final long gameId;
+    private final Board board;
+    private final long seed;
+    private final int snapshotInterval;
+    private long moves;
+    private Path lastSnapshot;
+
+    private JournaledGame(MoveJournal journal, long gameId, Board board, long seed, int snapshotInterval,
+                          long moves, Path lastSnapshot) {
+        if (snapshotInterval < 1) throw new IllegalArgumentException("Snapshot interval must be at least 1");
+        this.journal = journal;
+        this.gameId = gameId;
+        this.board = board;
+        this.seed = seed;
+        this.snapshotInterval = snapshotInterval;
+        this.moves = moves;
+        this.lastSnapshot = lastSnapshot;
+    }
+
+    static JournaledGame start(MoveJournal journal, long gameId, int rows, int cols, int mines, long seed,
+                               int snapshotInterval) throws IOException {
+        Board board = new Board(rows, cols);
+        board.placeMines(mines, new Random(seed), MinePlacement.FLOYD);
+        journal.create(gameId, rows, cols, mines, MinePlacement.FLOYD, seed);
+        return new JournaledGame(journal, gameId, board, seed, snapshotInterval, 0, null);
+    }
+
+    static JournaledGame recover(MoveJournal journal, long gameId, int snapshotInterval) throws IOException {
+        MoveJournal.Recorded log = MoveJournal.read(journal.journalFile(gameId));
+        Path snapshot = newestSnapshot(journal.directory(), gameId, log.moves());
+        long from = 0;
+        Board board;
+        if (snapshot != null) {
+            board = BoardSnapshot.read(snapshot);
+            from = snapshotMoves(snapshot, gameId);
+        } else {
+            board = new Board(log.rows, log.cols);
+            board.placeMines(log.mines, new Random(log.seed), log.placement);
+        }
+        for (int m = (int) from; m < log.moves(); m++) {
+            apply(board, log.types[m], log.squares[m]);
+        }
+        journal.reopen(gameId, log.moves());
+        return new JournaledGame(journal, gameId, board, log.seed, snapshotInterval, log.moves(), snapshot);
+    }
+
+    Board board() {
+        return board;
+    }
+
+    long moves() {
+        return moves;
+    }
+
+    Board.RevealResult reveal(int r, int c) {
+        Board.RevealResult res = board.reveal(r, c);
+        journaled(MoveJournal.REVEAL, r, c);
+        return res;
+    }
+
+    boolean toggleFlag(int r, int c) {
+        boolean flagged = board.toggleFlag(r, c);
+        journaled(MoveJournal.FLAG, r, c);
+        return flagged;
+    }
+
+    Board.MoveSummary chord(int r, int c) {
+        Board.MoveSummary summary = board.chord(r, c);
+        journaled(MoveJournal.CHORD, r, c);
+        return summary;
+    }
+
+    //appends a move that has been applied, snapshotting every snapshotInterval moves
+    private void journaled(byte type, int r, int c) {
+        journal.append(gameId, type, board.index(r, c));
+        moves++;
+        if (moves % snapshotInterval == 0) {
+            try {
+                snapshot();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Snapshot of game " + gameId + " failed", ex);
+            }
+        }
+    }
+
+    void snapshot() throws IOException {
+        journal.commit(gameId);
+        Path dir = journal.directory();
+        Path target = dir.resolve("game-" + gameId + "-" + moves + ".snap");
+        Path tmp = dir.resolve("game-" + gameId + "-" + moves + ".snap.tmp");
+        BoardSnapshot.write(board, seed, tmp);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (lastSnapshot != null && !lastSnapshot.equals(target)) Files.deleteIfExists(lastSnapshot);
+        lastSnapshot = target;
+    }
+
+    private static void apply(Board board, byte type, int square) {
+        int r = square / board.getCols(), c = square % board.getCols();
+        if (type == MoveJournal.REVEAL) {
+            board.reveal(r, c);
+        } else if (type == MoveJournal.FLAG) {
+            board.toggleFlag(r, c);
+        } else if (type == MoveJournal.CHORD) {
+            board.chord(r, c);
+        } else {
+            throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    //newest snapshot of the game that the journal fully covers
+    private static Path newestSnapshot(Path dir, long gameId, long journalMoves) throws IOException {
+        Path best = null;
+        long bestMoves = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "game-" + gameId + "-*.snap")) {
+            for (Path file : files) {
+                long m = snapshotMoves(file, gameId);
+                if (m > bestMoves && m <= journalMoves) {
+                    best = file;
+                    bestMoves = m;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static long snapshotMoves(Path file, long gameId) {
+        String name = file.getFileName().toString();
+        String prefix = "game-" + gameId + "-";
+        return Long.parseLong(name.substring(prefix.length(), name.length() - ".snap".length()));
+    }
+}
@@ -0,0 +1,77 @@
+package com.u3info.minesweeper;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/* Lock-free log-linear histogram of non-negative longs, in the spirit of HdrHistogram.
+ Values below 16 get a bucket each; above that every power of two is split into 16 buckets,
+ so a reported percentile is within 1/16 (about 6%) of the true value. 960 buckets cover
+ the whole long range; recording is one atomic increment plus the sum and max.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(bucket(value));
+        total.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    long count() {
+        return total.sum();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    double mean() {
+        long n = total.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    //upper edge of the bucket holding the value at fraction p (0..1) of the recorded ones
+    long percentile(double p) {
+        long n = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) {
+            snapshot[b] = counts.get(b);
+            n += snapshot[b];
+        }
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p * n));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += snapshot[b];
+            if (seen >= rank) return Math.min(upperEdge(b), max.get());
+        }
+        return max.get();
+    }
+
+    static int bucket(long v) {
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    static long upperEdge(int b) {
+        if (b < SUB) return b;
+        int exp = b / SUB + SUB_BITS - 1;
+        long sub = b % SUB;
+        long low = (SUB + sub) << (exp - SUB_BITS);
+        long width = 1L << (exp - SUB_BITS);
+        return low + width - 1;
+    }
+}
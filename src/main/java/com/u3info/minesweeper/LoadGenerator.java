@@ -0,0 +1,162 @@
+package com.u3info.minesweeper;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ Load generator for GameServer.
+
+    -Open `sessions` connections at once, each driven by its own (virtual) thread.
+    -Each session plays `games` games on a small grid, typing random squares.
+    -Move latency is the time from sending a square to receiving the next prompt.
+    -Print sessions, moves, moves/sec and p50/p99/max latency.
+
+ Usage: LoadGenerator [host] [port] [sessions] [games] [gridSize] [mines]
+ */
+public final class LoadGenerator {
+
+    private static final byte[] MOVE_PROMPT = "Select a square to reveal".getBytes();
+    private static final byte[] GAME_OVER_PROMPT = "Press any key to play again".getBytes();
+    private static final byte[] SIZE_PROMPT = "Enter the size of the grid".getBytes();
+    private static final byte[] MINES_PROMPT = "Enter the number of mines".getBytes();
+
+    static final class Report {
+        final int sessions;
+        final int failedSessions;
+        final long[] latenciesNanos;
+        final long elapsedNanos;
+
+        Report(int sessions, int failedSessions, long[] latenciesNanos, long elapsedNanos) {
+            this.sessions = sessions;
+            this.failedSessions = failedSessions;
+            this.latenciesNanos = latenciesNanos;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        long percentileNanos(double p) {
+            if (latenciesNanos.length == 0) return 0;
+            int k = (int) Math.ceil(p / 100.0 * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(0, Math.min(latenciesNanos.length - 1, k))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("sessions=%d failed=%d moves=%d moves/sec=%.0f p50=%.3fms p99=%.3fms max=%.3fms",
+                sessions, failedSessions, latenciesNanos.length,
+                elapsedNanos == 0 ? 0.0 : latenciesNanos.length * 1e9 / elapsedNanos,
+                percentileNanos(50) / 1e6, percentileNanos(99) / 1e6, percentileNanos(100) / 1e6);
+        }
+    }
+
+    static Report run(String host, int port, int sessions, int games, int gridSize, int mines)
+            throws InterruptedException {
+        final List<long[]> perSession = new ArrayList<long[]>();
+        final AtomicLong failed = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch(sessions);
+        ExecutorService threads = VirtualThreads.perTaskExecutor("minesweeper-load");
+        long start = System.nanoTime();
+        for (int s = 0; s < sessions; s++) {
+            final long seed = s;
+            threads.execute(() -> {
+                try {
+                    long[] latencies = playSession(host, port, games, gridSize, mines, new Random(seed));
+                    synchronized (perSession) {
+                        perSession.add(latencies);
+                    }
+                } catch (IOException ex) {
+                    failed.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        threads.shutdown();
+        threads.awaitTermination(10, TimeUnit.SECONDS);
+
+        int total = 0;
+        for (long[] l : perSession) total += l.length;
+        long[] all = new long[total];
+        int pos = 0;
+        for (long[] l : perSession) {
+            System.arraycopy(l, 0, all, pos, l.length);
+            pos += l.length;
+        }
+        Arrays.sort(all);
+        return new Report(sessions, (int) failed.get(), all, elapsed);
+    }
+
+    //one connection: play the games, return one latency sample per move
+    private static long[] playSession(String host, int port, int games, int gridSize, int mines, Random rng)
+            throws IOException {
+        long[] latencies = new long[64];
+        int n = 0;
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), 30000);
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            for (int g = 0; g < games; g++) {
+                if (g > 0) send(out, "");
+                awaitPrompt(in, SIZE_PROMPT);
+                send(out, Integer.toString(gridSize));
+                awaitPrompt(in, MINES_PROMPT);
+                send(out, Integer.toString(mines));
+                awaitPrompt(in, MOVE_PROMPT);
+                boolean over = false;
+                while (!over) {
+                    String square = CoordinateMapper.rowLabel(rng.nextInt(gridSize)) + (rng.nextInt(gridSize) + 1);
+                    long sent = System.nanoTime();
+                    send(out, square);
+                    over = awaitPrompt(in, MOVE_PROMPT, GAME_OVER_PROMPT) == 1;
+                    if (n == latencies.length) latencies = Arrays.copyOf(latencies, n * 2);
+                    latencies[n++] = System.nanoTime() - sent;
+                }
+            }
+        }
+        return Arrays.copyOf(latencies, n);
+    }
+
+    private static void send(OutputStream out, String line) throws IOException {
+        out.write((line + "\n").getBytes());
+        out.flush();
+    }
+
+    //reads until one of the markers has been seen; returns which one
+    private static int awaitPrompt(InputStream in, byte[]... markers) throws IOException {
+        int[] matched = new int[markers.length];
+        int b;
+        while ((b = in.read()) != -1) {
+            for (int m = 0; m < markers.length; m++) {
+                byte[] marker = markers[m];
+                //prompts start with distinct letters, so a mismatch can simply restart the match
+                matched[m] = marker[matched[m]] == b ? matched[m] + 1 : (marker[0] == b ? 1 : 0);
+                if (matched[m] == marker.length) return m;
+            }
+        }
+        throw new IOException("Connection closed by server");
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7070;
+        int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        int games = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        int gridSize = args.length > 4 ? Integer.parseInt(args[4]) : 9;
+        int mines = args.length > 5 ? Integer.parseInt(args[5]) : 10;
+        System.out.println(run(host, port, sessions, games, gridSize, mines));
+    }
+}
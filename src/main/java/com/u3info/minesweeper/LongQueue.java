@@ -0,0 +1,52 @@
+package com.u3info.minesweeper;
+
+/* FIFO queue of primitive longs backed by a growing ring buffer; the long counterpart of
+ IntQueue, for coordinates that do not fit a packed int index.
+ */
+final class LongQueue {
+    private long[] buf;
+    private int head;
+    private int size;
+
+    LongQueue(int initialCapacity) {
+        buf = new long[Math.max(16, initialCapacity)];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    void add(long v) {
+        if (size == buf.length) grow();
+        int tail = head + size;
+        if (tail >= buf.length) tail -= buf.length;
+        buf[tail] = v;
+        size++;
+    }
+
+    long poll() {
+        long v = buf[head];
+        head++;
+        if (head == buf.length) head = 0;
+        size--;
+        return v;
+    }
+
+    private void grow() {
+        long[] next = new long[buf.length * 2];
+        int firstPart = Math.min(size, buf.length - head);
+        System.arraycopy(buf, head, next, 0, firstPart);
+        System.arraycopy(buf, 0, next, firstPart, size - firstPart);
+        buf = next;
+        head = 0;
+    }
+}
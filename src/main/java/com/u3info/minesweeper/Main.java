@@ -3,7 +3,15 @@ package com.u3info.minesweeper;
 public class Main {
     public static void main(String[] args) {
 
-        MinesweepAppController app = new MinesweepAppController();
+        //--delta prints only the squares each move uncovers instead of the whole board
+        //--safe-start never puts a mine under the first square revealed
+        boolean delta = false, safeStart = false;
+        for (String arg : args) {
+            if ("--delta".equals(arg)) delta = true;
+            if ("--safe-start".equals(arg)) safeStart = true;
+        }
+        Metrics.startIfEnabled(System.err);
+        MinesweepAppController app = new MinesweepAppController(delta, Board.MAX_SIDE, safeStart);
         app.run(System.in, System.out);
 
     }
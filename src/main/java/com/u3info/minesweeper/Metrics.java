@@ -0,0 +1,207 @@
+package com.u3info.minesweeper;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ Process-wide counters and histograms for the engine's hot paths.
+
+    -Switched on with -Dminesweeper.metrics=true. ENABLED is a static final read once, so
+     with metrics off the JIT folds every "if (Metrics.ENABLED)" away and the hot paths run
+     exactly as before (MetricsOverheadBenchmark compares both).
+    -Counters are LongAdders and histograms are LatencyHistograms: recording never locks,
+     however many sessions a server runs.
+    -Exposed through JMX (MetricsMXBean) and as a text or JSON dump, printed periodically by
+     startIfEnabled: -Dminesweeper.metrics.period=<seconds> (default 10) and
+     -Dminesweeper.metrics.format=json|text (default text).
+
+ Recorded: reveal latency, squares opened per flood fill, the flood queue's high-water mark,
+ placeMines latency, printBoard latency and bytes, and moves (every reveal, chord or batch).
+ */
+final class Metrics implements MetricsMXBean {
+
+    static final boolean ENABLED = Boolean.getBoolean("minesweeper.metrics");
+
+    static final LatencyHistogram REVEAL_NANOS = new LatencyHistogram();
+    static final LatencyHistogram FLOOD_CELLS = new LatencyHistogram();
+    static final LatencyHistogram PLACE_MINES_NANOS = new LatencyHistogram();
+    static final LatencyHistogram RENDER_NANOS = new LatencyHistogram();
+    static final LongAdder MOVES = new LongAdder();
+    static final LongAdder RENDER_BYTES = new LongAdder();
+    static final LongAccumulator FLOOD_QUEUE_HIGH_WATER = new LongAccumulator(Math::max, 0);
+
+    static final Metrics INSTANCE = new Metrics();
+
+    private final long startNanos = System.nanoTime();
+    //moves and time where the current dump interval began, and the rate over the last one
+    private long lastMoves;
+    private long lastNanos = startNanos;
+    private volatile double intervalRate;
+
+    private Metrics() {
+    }
+
+    /* registers the MXBean and starts the periodic dump to err, once, when metrics are on.
+     Returns the dump scheduler (null when metrics are off) so callers can stop it. */
+    static synchronized ScheduledExecutorService startIfEnabled(PrintStream err) {
+        if (!ENABLED) return null;
+        try {
+            ObjectName name = new ObjectName("com.u3info.minesweeper:type=Metrics");
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, name);
+            }
+        } catch (JMException ex) {
+            err.println("Metrics: JMX registration failed: " + ex.getMessage());
+        }
+        long period = Long.getLong("minesweeper.metrics.period", 10);
+        final boolean json = "json".equals(System.getProperty("minesweeper.metrics.format"));
+        ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "minesweeper-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(() -> {
+            INSTANCE.closeInterval();
+            err.println(json ? INSTANCE.toJson() : INSTANCE.toText());
+        }, period, period, TimeUnit.SECONDS);
+        return dumper;
+    }
+
+    /* ends the current dump interval and keeps its moves per second for the dumps to read.
+     Only the periodic dumper calls this, so ad-hoc dumps (JMX, BatchMain) never shorten an
+     interval. */
+    synchronized void closeInterval() {
+        long now = System.nanoTime(), moves = MOVES.sum();
+        intervalRate = now == lastNanos ? 0 : (moves - lastMoves) * 1e9 / (now - lastNanos);
+        lastMoves = moves;
+        lastNanos = now;
+    }
+
+    //moves per second over the last closed interval; 0 until the first one closes
+    double intervalMovesPerSecond() {
+        return intervalRate;
+    }
+
+    String toText() {
+        return String.format(Locale.ROOT,
+            "moves=%d moves/sec=%.1f reveal[n=%d p50=%dns p99=%dns max=%dns]"
+                + " flood[n=%d p50=%d p99=%d max=%d queueMax=%d]"
+                + " placeMines[n=%d p50=%dns max=%dns] render[n=%d p50=%dns p99=%dns bytes=%d]",
+            MOVES.sum(), intervalMovesPerSecond(),
+            REVEAL_NANOS.count(), REVEAL_NANOS.percentile(0.5), REVEAL_NANOS.percentile(0.99), REVEAL_NANOS.max(),
+            FLOOD_CELLS.count(), FLOOD_CELLS.percentile(0.5), FLOOD_CELLS.percentile(0.99), FLOOD_CELLS.max(),
+            FLOOD_QUEUE_HIGH_WATER.get(),
+            PLACE_MINES_NANOS.count(), PLACE_MINES_NANOS.percentile(0.5), PLACE_MINES_NANOS.max(),
+            RENDER_NANOS.count(), RENDER_NANOS.percentile(0.5), RENDER_NANOS.percentile(0.99), RENDER_BYTES.sum());
+    }
+
+    String toJson() {
+        return String.format(Locale.ROOT,
+            "{\"moves\":%d,\"movesPerSecond\":%.1f,"
+                + "\"reveal\":{\"count\":%d,\"p50Nanos\":%d,\"p99Nanos\":%d,\"maxNanos\":%d},"
+                + "\"flood\":{\"count\":%d,\"p50Cells\":%d,\"p99Cells\":%d,\"maxCells\":%d,\"queueHighWater\":%d},"
+                + "\"placeMines\":{\"count\":%d,\"p50Nanos\":%d,\"maxNanos\":%d},"
+                + "\"render\":{\"count\":%d,\"p50Nanos\":%d,\"p99Nanos\":%d,\"bytes\":%d}}",
+            MOVES.sum(), intervalMovesPerSecond(),
+            REVEAL_NANOS.count(), REVEAL_NANOS.percentile(0.5), REVEAL_NANOS.percentile(0.99), REVEAL_NANOS.max(),
+            FLOOD_CELLS.count(), FLOOD_CELLS.percentile(0.5), FLOOD_CELLS.percentile(0.99), FLOOD_CELLS.max(),
+            FLOOD_QUEUE_HIGH_WATER.get(),
+            PLACE_MINES_NANOS.count(), PLACE_MINES_NANOS.percentile(0.5), PLACE_MINES_NANOS.max(),
+            RENDER_NANOS.count(), RENDER_NANOS.percentile(0.5), RENDER_NANOS.percentile(0.99), RENDER_BYTES.sum());
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public long getMoves() {
+        return MOVES.sum();
+    }
+
+    //average since startup; the periodic dump reports the rate per interval instead
+    @Override
+    public double getMovesPerSecond() {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed == 0 ? 0 : MOVES.sum() * 1e9 / elapsed;
+    }
+
+    @Override
+    public long getRevealCount() {
+        return REVEAL_NANOS.count();
+    }
+
+    @Override
+    public long getRevealP50Nanos() {
+        return REVEAL_NANOS.percentile(0.5);
+    }
+
+    @Override
+    public long getRevealP99Nanos() {
+        return REVEAL_NANOS.percentile(0.99);
+    }
+
+    @Override
+    public long getRevealMaxNanos() {
+        return REVEAL_NANOS.max();
+    }
+
+    @Override
+    public long getFloodFills() {
+        return FLOOD_CELLS.count();
+    }
+
+    @Override
+    public long getFloodCellsP50() {
+        return FLOOD_CELLS.percentile(0.5);
+    }
+
+    @Override
+    public long getFloodCellsP99() {
+        return FLOOD_CELLS.percentile(0.99);
+    }
+
+    @Override
+    public long getFloodCellsMax() {
+        return FLOOD_CELLS.max();
+    }
+
+    @Override
+    public long getFloodQueueHighWater() {
+        return FLOOD_QUEUE_HIGH_WATER.get();
+    }
+
+    @Override
+    public long getPlaceMinesP50Nanos() {
+        return PLACE_MINES_NANOS.percentile(0.5);
+    }
+
+    @Override
+    public long getPlaceMinesMaxNanos() {
+        return PLACE_MINES_NANOS.max();
+    }
+
+    @Override
+    public long getRenderP50Nanos() {
+        return RENDER_NANOS.percentile(0.5);
+    }
+
+    @Override
+    public long getRenderP99Nanos() {
+        return RENDER_NANOS.percentile(0.99);
+    }
+
+    @Override
+    public long getRenderBytes() {
+        return RENDER_BYTES.sum();
+    }
+}
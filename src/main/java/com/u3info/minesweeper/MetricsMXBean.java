@@ -0,0 +1,40 @@
+package com.u3info.minesweeper;
+
+/* JMX view of Metrics, registered as com.u3info.minesweeper:type=Metrics. Latencies are in
+ nanoseconds; flood sizes in squares. */
+public interface MetricsMXBean {
+
+    boolean isEnabled();
+
+    long getMoves();
+
+    double getMovesPerSecond();
+
+    long getRevealCount();
+
+    long getRevealP50Nanos();
+
+    long getRevealP99Nanos();
+
+    long getRevealMaxNanos();
+
+    long getFloodFills();
+
+    long getFloodCellsP50();
+
+    long getFloodCellsP99();
+
+    long getFloodCellsMax();
+
+    long getFloodQueueHighWater();
+
+    long getPlaceMinesP50Nanos();
+
+    long getPlaceMinesMaxNanos();
+
+    long getRenderP50Nanos();
+
+    long getRenderP99Nanos();
+
+    long getRenderBytes();
+}
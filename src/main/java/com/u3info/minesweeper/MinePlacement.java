@@ -0,0 +1,15 @@
+package com.u3info.minesweeper;
+
+/* How Board.placeMines picks the mine squares. Both give the same board for the same seed
+ every time, but they consume the Random differently, so a seed only reproduces a board
+ together with the strategy that made it.
+ */
+enum MinePlacement {
+    /* draw random (row, col) pairs and retry on squares that are already mines.
+     The original algorithm; the number of draws grows as the board fills up. */
+    REJECTION,
+
+    /* Floyd's sampling over cell indices: exactly one draw per mine and no retries,
+     so the cost is O(mines) at any density. The board itself is the membership set. */
+    FLOYD
+}
@@ -1,9 +1,12 @@
 package com.u3info.minesweeper;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.NoSuchElementException;
 import java.util.Random;
-import java.util.Scanner;
 
 /**
   Main controller for running the Minesweeper game in a CLI environment.
@@ -13,40 +16,126 @@ import java.util.Scanner;
      -Accept and parse player input for cell selections. 
      -process moves and determine outcomes. 
      -Detect win or loss conditions and handle replay prompts. 
+
+  In delta mode only the squares a move uncovered are printed after it (see
+  MinesweepViewRenderer.printChanges); the full board is still shown at the start and end of a game.
+  Boards of TILE_INDEX_MIN_SIZE and up keep a TileIndex, so the mines shown when a game is
+  lost are read from its mine lists rather than found by walking every square. Smaller boards
+  skip it: walking them is cheap, and the index would add bookkeeping to every reveal.
+  With a safe first click, a mine under the first square revealed is moved elsewhere before
+  the reveal (Board.moveMineAway), so no game is lost on its first move.
+
+  Besides a plain square ("A1") a move can be "!A1" to flag or unflag a square, "*A1" to chord
+  (reveal the unflagged neighbours of a number whose flags are all placed) or a list such as
+  "A1,B2,C3", which is revealed as one move (Board.revealAll).
+  Input is read through a CommandReader, which parses moves straight from the channel's bytes,
+  so a bot can pipeline moves without each one costing a String.
  */
 
 public final class MinesweepAppController {
 
+    //a side of two 64x64 tiles; below that the index costs more per reveal than it saves
+    static final int TILE_INDEX_MIN_SIZE = 128;
+
     private final MinesweepViewRenderer renderer = new MinesweepViewRenderer();
+    private final boolean deltaRendering;
+    private final int maxSize;
+    private final boolean safeFirstClick;
+    private final Random relocation = new Random();
+
+    public MinesweepAppController() {
+        this(false);
+    }
+
+    public MinesweepAppController(boolean deltaRendering) {
+        this(deltaRendering, Board.MAX_SIDE);
+    }
+
+    //maxSize caps the grid a player may ask for, e.g. to bound memory per session on a server
+    public MinesweepAppController(boolean deltaRendering, int maxSize) {
+        this(deltaRendering, maxSize, false);
+    }
+
+    public MinesweepAppController(boolean deltaRendering, int maxSize, boolean safeFirstClick) {
+        this.deltaRendering = deltaRendering;
+        this.maxSize = Math.min(maxSize, Board.MAX_SIDE);
+        this.safeFirstClick = safeFirstClick;
+    }
 
+    //plays games until the input ends (console EOF, closed or timed-out connection)
     public void run(InputStream in, PrintStream out) {
-        Scanner sc = new Scanner(in);
+        run(Channels.newChannel(in), out);
+    }
+
+    //a non-blocking channel works too: the game waits on a Selector until the next move arrives
+    public void run(ReadableByteChannel in, PrintStream out) {
+        CommandReader commands = new CommandReader(in);
         out.println("Welcome to Minesweeper!");
+        try {
+            playGames(commands, out);
+        } catch (NoSuchElementException | IOException ex) {
+            out.println();
+            out.println("Goodbye!");
+            out.flush();
+        } finally {
+            try {
+                commands.close();
+            } catch (IOException ignored) {
+                //nothing to do about a Selector that would not close
+            }
+        }
+    }
+
+    private void playGames(CommandReader commands, PrintStream out) throws IOException {
         while (true) {
-            Board board = setupBoard(sc, out);
+            Board board = setupBoard(commands, out);
+            board.setChangeTracking(deltaRendering);
             renderer.printBoard(board, out);
             boolean gameOver = false;
             while (!gameOver) {
-                out.print("Select a square to reveal (e.g. A1): ");
-                String token = sc.next();
+                out.print("Select a square to reveal (e.g. A1; !A1 flags, *A1 chords, A1,B2 reveals both): ");
                 try{
-                    CoordinateMapper coordinateMapper = CoordinateMapper.parse(token, board.getSize());
-                    Board.RevealResult res = board.reveal(coordinateMapper.row, coordinateMapper.col);
-                    if (res.already) {
-                        out.println("This square was already revealed (" + res.adjacent + ").");
-                    } else if (res.hitMine) {
-                        out.println("Oh no, you detonated a mine! Game over.");
-                        revealAllMines(board);
+                    int kind;
+                    while ((kind = commands.next(board.getRows(), board.getCols())) == CommandReader.NONE) {
+                        commands.awaitInput();
+                    }
+                    if (kind == CommandReader.FLAG) {
+                        out.println(board.toggleFlag(commands.row(), commands.col()) ? "Flag placed." : "Flag removed.");
                         renderer.printBoard(board, out);
-                        gameOver = true;
+                    } else if (kind == CommandReader.CHORD || kind == CommandReader.BATCH) {
+                        Board.MoveSummary summary;
+                        if (kind == CommandReader.CHORD) {
+                            summary = board.chord(commands.row(), commands.col());
+                        } else {
+                            IntList batch = commands.squares();
+                            if (safeFirstClick && board.getRevealedCount() == 0) {
+                                int first = batch.get(0);
+                                board.moveMineAway(first / board.getCols(), first % board.getCols(), relocation);
+                            }
+                            summary = board.revealAll(batch);
+                        }
+                        if (summary.hitMine) {
+                            showLoss(board, out);
+                            gameOver = true;
+                        } else {
+                            out.println("Revealed " + summary.opened + " squares.");
+                            out.println();
+                            gameOver = showProgress(board, out);
+                        }
                     } else {
-                        out.println("This square contains " + res.adjacent + " adjacent mines. ");
-                        out.println();
-                        out.println("Here is your updated minefield:");
-                        renderer.printBoard(board, out);
-                        if (board.allNonMinesRevealed()) {
-                            out.println("Congratulations, you have won the game!");
+                        if (safeFirstClick && board.getRevealedCount() == 0) {
+                            board.moveMineAway(commands.row(), commands.col(), relocation);
+                        }
+                        Board.RevealResult res = board.reveal(commands.row(), commands.col());
+                        if (res.already) {
+                            out.println("This square was already revealed (" + res.adjacent + ").");
+                        } else if (res.hitMine) {
+                            showLoss(board, out);
                             gameOver = true;
+                        } else {
+                            out.println("This square contains " + res.adjacent + " adjacent mines. ");
+                            out.println();
+                            gameOver = showProgress(board, out);
                         }
                     }
                 }catch (IllegalArgumentException ex){
@@ -54,29 +143,51 @@ public final class MinesweepAppController {
                 }
             }
             out.print("Press any key to play again...");
-            sc.nextLine();
-            sc.nextLine();
+            commands.skipLine();
+            commands.skipLine();
         }
     }
 
-    private Board setupBoard(Scanner sc, PrintStream out) {
-        //If we allow more than 26 rows, we run out of single uppercase letters.
-        int size = promptInt(sc, out, "Enter the size of the grid (e.g. 4 for a 4x4 grid): ", 2, 26);
+    private void showLoss(Board board, PrintStream out) {
+        out.println("Oh no, you detonated a mine! Game over.");
+        revealAllMines(board);
+        renderer.printBoard(board, out);
+    }
+
+    //prints the board (or just the changes in delta mode) after a safe move; returns whether it won
+    private boolean showProgress(Board board, PrintStream out) {
+        boolean won = board.allNonMinesRevealed();
+        if (deltaRendering && !won) {
+            out.println("Newly revealed squares:");
+            renderer.printChanges(board, out);
+        } else {
+            out.println("Here is your updated minefield:");
+            renderer.printBoard(board, out);
+        }
+        if (won) {
+            out.println("Congratulations, you have won the game!");
+        }
+        return won;
+    }
+
+    private Board setupBoard(CommandReader commands, PrintStream out) throws IOException {
+        //rows past Z continue as AA, AB, ... so the only cap is the board's own limit
+        int size = promptInt(commands, out, "Enter the size of the grid (e.g. 4 for a 4x4 grid): ", 2, maxSize);
         Board board = new Board(size);
-        int maxMines = (int) Math.floor(board.getTotalCells() * 0.35);
-        int minesCount = promptInt(sc, out, "Enter the number of mines to place on the grid (maximum is 35% of the total squares): ", 1, maxMines);
+        int maxMines = Board.maxMines(size, size);
+        int minesCount = promptInt(commands, out, "Enter the number of mines to place on the grid (maximum is 35% of the total squares): ", 1, maxMines);
         board.placeMines(minesCount, new Random());
+        if (size >= TILE_INDEX_MIN_SIZE) board.enableTileIndex();
         out.println();
         out.println("Here is your minefield:");
         return board;
     }
 
-    private int promptInt(Scanner sc, PrintStream out, String prompt, int min, int max) {
+    private int promptInt(CommandReader commands, PrintStream out, String prompt, int min, int max) throws IOException {
         while (true) {
             out.println(prompt);
-            String input = sc.next();
             try {
-                int val = Integer.parseInt(input);
+                int val = commands.nextInt();
                 if (val < min || val > max) {
                     out.println("Please enter a number between " + min + " and " + max + ".");
                 } else {
@@ -89,6 +200,11 @@ public final class MinesweepAppController {
     }
 
     private void revealAllMines(Board board) {
+        TileIndex tiles = board.tiles();
+        if (tiles != null) {
+            tiles.revealMines(board);
+            return;
+        }
         for (int r = 0; r < board.getSize(); r++) {
             for (int c = 0; c < board.getSize(); c++) {
                 Cell cell = board.cell(r, c);
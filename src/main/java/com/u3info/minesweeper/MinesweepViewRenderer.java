@@ -5,38 +5,138 @@ import java.io.PrintStream;
 /**
  It is purely concerned with display.
 
- -Print column numbers across the top and row labels (A-Z) down the side.
- -Display unrevealed cells as underscores.
+ -Print column numbers across the top and row labels (A-Z, then AA, AB, ...) down the side.
+ -Display unrevealed cells as underscores, flagged ones as F.
  -Display revealed mine cells.
  -Display revealed cells with count (0–8).
+
+ The whole frame is assembled as ASCII bytes in a buffer that is kept between calls and
+ handed to the stream in a single write, instead of one synchronized print per square.
+ printChanges writes only the squares the last move uncovered ("B2=1 B3=0"), so its output
+ grows with the size of the move rather than the board.
+ Not thread-safe: use one renderer per output.
  */
 final class MinesweepViewRenderer {
 
+    private static final byte UNREVEALED = '_';
+    private static final byte FLAG = 'F';
+    private static final byte MINE = '*';
+    private static final byte SPACE = ' ';
+    private static final byte[] NEWLINE = System.lineSeparator().getBytes();
+
+    private byte[] frame = new byte[256];
+    private int len;
+
     void printBoard(Board board, PrintStream out) {
-        int n = board.getSize();
-        out.print("  ");
-        for (int c = 1; c <= n; c++) {
-            out.print(c);
-            if (c < n) out.print(" ");
-        }
-        out.println();
-        for (int r = 0; r < n; r++) {
-            //print char for row eg: 'A' + 1 → 66 -> cast to char -> 'B'
-            out.print((char)('A' + r));
-            out.print(" ");
-            for (int c = 0; c < n; c++) {
-                Cell cell = board.cell(r, c);
-                if (!cell.isRevealed()) {
-                    out.print("_");
-                } else if (cell.isAMine()) {
-                    out.print("*");
-                } else {
-                    out.print(cell.getAdjacent());
-                }
-                if (c < n - 1) out.print(" ");
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        int rows = board.getRows();
+        int cols = board.getCols();
+        //labels are padded to the widest one so the grid stays aligned past row Z
+        int labelWidth = CoordinateMapper.rowLabel(rows - 1).length();
+        ensureCapacity(frameSize(rows, cols, labelWidth));
+        len = 0;
+
+        pad(labelWidth + 1);
+        for (int c = 1; c <= cols; c++) {
+            number(c);
+            if (c < cols) frame[len++] = SPACE;
+        }
+        newline();
+        for (int r = 0; r < rows; r++) {
+            pad(labelWidth - letters(r) + 1);
+            int i = board.index(r, 0);
+            for (int c = 0; c < cols; c++, i++) {
+                frame[len++] = glyph(board, i);
+                if (c < cols - 1) frame[len++] = SPACE;
             }
-            out.println();
+            newline();
+        }
+        newline();
+        out.write(frame, 0, len);
+        if (Metrics.ENABLED) recordRender(start);
+    }
+
+    //one line listing the squares in board.lastChanges() as label+column=glyph
+    void printChanges(Board board, PrintStream out) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        IntList changes = board.lastChanges();
+        int cols = board.getCols();
+        //widest entry: 4 row letters, 5 column digits, '=', glyph and a space
+        ensureCapacity(changes.size() * 12L + NEWLINE.length);
+        len = 0;
+        for (int k = 0; k < changes.size(); k++) {
+            int i = changes.get(k);
+            if (k > 0) frame[len++] = SPACE;
+            letters(i / cols);
+            number(i % cols + 1);
+            frame[len++] = '=';
+            frame[len++] = glyph(board, i);
+        }
+        newline();
+        out.write(frame, 0, len);
+        if (Metrics.ENABLED) recordRender(start);
+    }
+
+    private void recordRender(long start) {
+        Metrics.RENDER_NANOS.record(System.nanoTime() - start);
+        Metrics.RENDER_BYTES.add(len);
+    }
+
+    private static byte glyph(Board board, int i) {
+        if (!board.isRevealed(i)) return board.isFlagged(i) ? FLAG : UNREVEALED;
+        int adjacent = board.adjacent(i);
+        return adjacent < 0 ? MINE : (byte) ('0' + adjacent);
+    }
+
+    //exact byte count of a frame, so the buffer is sized once and never checked per square
+    private static long frameSize(int rows, int cols, int labelWidth) {
+        long header = labelWidth + 1 + (cols - 1) + NEWLINE.length;
+        for (int width = 1, from = 1; from <= cols; width++, from *= 10) {
+            long to = Math.min(cols, from * 10L - 1);
+            header += (to - from + 1) * width;
         }
-        out.println();
+        long row = labelWidth + 1 + 2L * cols - 1 + NEWLINE.length;
+        return header + rows * row + NEWLINE.length;
+    }
+
+    private void ensureCapacity(long size) {
+        if (size > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Board too large to render");
+        if (frame.length < size) {
+            frame = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(size, 2L * frame.length))];
+        }
+    }
+
+    private void number(int n) {
+        int digits = 1;
+        for (int t = n; t >= 10; t /= 10) digits++;
+        for (int k = len + digits - 1; k >= len; k--) {
+            frame[k] = (byte) ('0' + n % 10);
+            n /= 10;
+        }
+        len += digits;
+    }
+
+    //same letters as CoordinateMapper.rowLabel, written straight into the frame; returns how many
+    private int letters(int row) {
+        int end = len;
+        for (int n = row + 1; n > 0; n /= 26) {
+            n--;
+            end++;
+        }
+        int k = end;
+        for (int n = row + 1; n > 0; n /= 26) {
+            n--;
+            frame[--k] = (byte) ('A' + n % 26);
+        }
+        len = end;
+        return end - k;
+    }
+
+    private void pad(int n) {
+        for (int k = 0; k < n; k++) frame[len++] = SPACE;
+    }
+
+    private void newline() {
+        for (byte b : NEWLINE) frame[len++] = b;
     }
 }
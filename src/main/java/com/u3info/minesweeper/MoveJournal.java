@@ -0,0 +1,290 @@
+package com.u3info.minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ Append-only move logs for many games, written with group commit.
+
+    -Each game has its own file: a header (board shape, mines, placement, seed) and then one
+     fixed-size record per move.
+    -append only copies the record into the game's in-memory buffer, so a move never waits
+     for the disk.
+    -A single committer thread writes every game's pending records and fsyncs each touched
+     file once per commit interval, however many moves arrived in between.
+
+ A crash loses at most the last commit interval; a half-written record at the end of a file
+ is ignored by read. JournaledGame adds snapshots and replay on top.
+
+ File layout (big-endian): int magic "MSWJ", int version, int rows, int cols, int mines,
+ int placement ordinal, long seed, then records of (byte type, int square index). Types are
+ REVEAL, FLAG (toggle a flag) and CHORD.
+ */
+final class MoveJournal implements AutoCloseable {
+
+    static final int MAGIC = 0x4D53574A;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 5;
+    static final byte REVEAL = 1;
+    static final byte FLAG = 2;
+    static final byte CHORD = 3;
+
+    private final Path dir;
+    private final Map<Long, GameLog> logs = new ConcurrentHashMap<Long, GameLog>();
+    private final Thread committer;
+    //the committer waits on this between commits; interrupting it instead could land in the
+    //middle of a FileChannel write, which closes the channel
+    private final Object wakeup = new Object();
+    private volatile boolean closed;
+
+    MoveJournal(Path dir, final long commitIntervalMillis) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.committer = new Thread(() -> {
+            while (!closed) {
+                try {
+                    synchronized (wakeup) {
+                        if (!closed) wakeup.wait(commitIntervalMillis);
+                    }
+                    if (!closed) commit();
+                } catch (InterruptedException ex) {
+                    return;
+                } catch (IOException ex) {
+                    //keep the records buffered and try again next interval
+                }
+            }
+        }, "minesweeper-journal-commit");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    Path journalFile(long gameId) {
+        return dir.resolve("game-" + gameId + ".journal");
+    }
+
+    Path directory() {
+        return dir;
+    }
+
+    //starts a new journal for a game; the header is durable before this returns
+    void create(long gameId, int rows, int cols, int mines, MinePlacement placement, long seed) throws IOException {
+        FileChannel ch = FileChannel.open(journalFile(gameId), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(cols).putInt(mines)
+            .putInt(placement.ordinal()).putLong(seed).flip();
+        while (header.hasRemaining()) ch.write(header);
+        ch.force(true);
+        logs.put(gameId, new GameLog(ch));
+    }
+
+    //reopens an existing journal for appending, cutting off a torn record at the end
+    void reopen(long gameId, long records) throws IOException {
+        FileChannel ch = FileChannel.open(journalFile(gameId), StandardOpenOption.WRITE);
+        ch.truncate(HEADER_BYTES + records * RECORD_BYTES);
+        ch.position(ch.size());
+        logs.put(gameId, new GameLog(ch));
+    }
+
+    void append(long gameId, byte type, int index) {
+        GameLog log = logs.get(gameId);
+        if (log == null) throw new IllegalStateException("No open journal for game " + gameId);
+        log.add(type, index);
+    }
+
+    /* writes and fsyncs everything appended so far, for all games. A game whose file fails
+     keeps its records buffered and its failure (see lastFailure) and does not stop the round:
+     every other game is still committed, then the first failure is thrown with the others
+     added as suppressed. */
+    void commit() throws IOException {
+        IOException first = null;
+        for (GameLog log : logs.values()) {
+            try {
+                log.commit();
+            } catch (IOException ex) {
+                if (first == null) first = ex;
+                else first.addSuppressed(ex);
+            }
+        }
+        if (first != null) throw first;
+    }
+
+    void commit(long gameId) throws IOException {
+        GameLog log = logs.get(gameId);
+        if (log != null) log.commit();
+    }
+
+    //the error of the game's last commit, or null if it succeeded (or the game is not open)
+    IOException lastFailure(long gameId) {
+        GameLog log = logs.get(gameId);
+        return log == null ? null : log.failure;
+    }
+
+    //commits and closes one game; the file is closed even when the final commit fails
+    void closeGame(long gameId) throws IOException {
+        GameLog log = logs.remove(gameId);
+        if (log != null) {
+            try {
+                log.commit();
+            } finally {
+                log.channel.close();
+            }
+        }
+    }
+
+    //closes every game, even after one fails; the first failure is thrown, the rest suppressed
+    @Override
+    public void close() throws IOException {
+        synchronized (wakeup) {
+            closed = true;
+            wakeup.notifyAll();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        IOException first = null;
+        for (Long gameId : logs.keySet()) {
+            try {
+                closeGame(gameId);
+            } catch (IOException ex) {
+                if (first == null) first = ex;
+                else first.addSuppressed(ex);
+            }
+        }
+        if (first != null) throw first;
+    }
+
+    //header fields and moves of a journal file
+    static final class Recorded {
+        final int rows;
+        final int cols;
+        final int mines;
+        final MinePlacement placement;
+        final long seed;
+        final byte[] types;
+        final int[] squares;
+
+        private Recorded(int rows, int cols, int mines, MinePlacement placement, long seed, byte[] types, int[] squares) {
+            this.rows = rows;
+            this.cols = cols;
+            this.mines = mines;
+            this.placement = placement;
+            this.seed = seed;
+            this.types = types;
+            this.squares = squares;
+        }
+
+        int moves() {
+            return squares.length;
+        }
+    }
+
+    static Recorded read(Path file) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buf.remaining() < HEADER_BYTES || buf.getInt() != MAGIC) {
+            throw new IOException("Not a move journal: " + file);
+        }
+        int version = buf.getInt();
+        if (version != VERSION) throw new IOException("Unsupported journal version " + version);
+        int rows = buf.getInt(), cols = buf.getInt(), mines = buf.getInt();
+        int ordinal = buf.getInt();
+        MinePlacement[] placements = MinePlacement.values();
+        if (ordinal < 0 || ordinal >= placements.length) throw new IOException("Unknown mine placement " + ordinal + " in " + file);
+        MinePlacement placement = placements[ordinal];
+        long seed = buf.getLong();
+        int moves = buf.remaining() / RECORD_BYTES;
+        byte[] types = new byte[moves];
+        int[] squares = new int[moves];
+        for (int m = 0; m < moves; m++) {
+            types[m] = buf.get();
+            squares[m] = buf.getInt();
+        }
+        return new Recorded(rows, cols, mines, placement, seed, types, squares);
+    }
+
+    /* one game's file and its not yet committed records. Moves fill `pending` under the lock;
+     commit swaps it for the empty spare and does the disk work outside the lock. If the write
+     fails, whatever it did not get to is put back in front of `pending`, so the next commit
+     writes it again in order; if only the fsync fails, the next commit repeats the fsync. */
+    static final class GameLog {
+        private final FileChannel channel;
+        private ByteBuffer pending = ByteBuffer.allocate(RECORD_BYTES * 256);
+        private ByteBuffer spare = ByteBuffer.allocate(RECORD_BYTES * 256);
+        //records written but not yet forced; guarded by channel
+        private boolean unforced;
+        //what the last commit threw, null once one succeeds
+        private volatile IOException failure;
+
+        GameLog(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        synchronized void add(byte type, int index) {
+            if (pending.remaining() < RECORD_BYTES) {
+                ByteBuffer bigger = ByteBuffer.allocate(pending.capacity() * 2);
+                pending.flip();
+                bigger.put(pending);
+                pending = bigger;
+            }
+            pending.put(type).putInt(index);
+        }
+
+        //keeps the outcome for MoveJournal.lastFailure
+        void commit() throws IOException {
+            try {
+                write();
+                failure = null;
+            } catch (IOException ex) {
+                failure = ex;
+                throw ex;
+            }
+        }
+
+        //commits of one game are serialized so records reach the file in move order
+        private void write() throws IOException {
+            synchronized (channel) {
+                ByteBuffer batch;
+                synchronized (this) {
+                    if (pending.position() == 0 && !unforced) return;
+                    batch = pending;
+                    pending = spare;
+                    spare = batch;
+                }
+                batch.flip();
+                try {
+                    while (batch.hasRemaining()) channel.write(batch);
+                } catch (IOException ex) {
+                    restore(batch);
+                    throw ex;
+                }
+                batch.clear();
+                unforced = true;
+                channel.force(false);
+                unforced = false;
+            }
+        }
+
+        //puts the unwritten rest of a failed batch back ahead of the records added since
+        private synchronized void restore(ByteBuffer batch) {
+            batch.compact();
+            pending.flip();
+            if (batch.remaining() < pending.remaining()) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(batch.capacity() * 2, batch.position() + pending.remaining()));
+                batch.flip();
+                bigger.put(batch);
+                batch = bigger;
+            }
+            batch.put(pending);
+            pending.clear();
+            spare = pending;
+            pending = batch;
+        }
+    }
+}
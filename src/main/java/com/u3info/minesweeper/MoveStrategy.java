@@ -0,0 +1,35 @@
+package com.u3info.minesweeper;
+
+import java.util.Random;
+
+/* How a headless game picks its moves. start hands out a Chooser for one game, which
+ BatchRunner.play builds with the game's board and drops when the game ends, so a strategy
+ keeps no state between games or threads.
+ */
+interface MoveStrategy {
+
+    //the board has change tracking on, so a chooser may read lastChanges after each move
+    Chooser start(Board board);
+
+    /* Picks the next square to reveal. Returns a packed index (row * cols + col), or -1 to
+     give up. rng is seeded per game, so a chooser that only draws from it plays the same game
+     every time. */
+    interface Chooser {
+        int nextMove(Random rng);
+    }
+
+    //a uniformly random start, then the first unrevealed square from there (wrapping around)
+    MoveStrategy RANDOM = board -> rng -> {
+        int n = board.getTotalCells();
+        int start = rng.nextInt(n);
+        for (int k = 0; k < n; k++) {
+            int i = start + k;
+            if (i >= n) i -= n;
+            if (!board.isRevealed(i)) return i;
+        }
+        return -1;
+    };
+
+    //plays every square the Solver can prove safe, guessing the least likely mine otherwise
+    MoveStrategy SOLVER = Solver::chooser;
+}
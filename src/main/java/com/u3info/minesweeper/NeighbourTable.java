@@ -0,0 +1,94 @@
+package com.u3info.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ Precomputed neighbours of every square of a rows x cols board for one Topology.
+
+    -Squares whose neighbours sit at the same index offsets share a "shape". On every
+     topology the shape depends only on how close the square is to each edge (up to the
+     topology's reach) and, for hexes, on its row's parity, so a board has at most a few
+     dozen shapes whatever its size.
+    -The shapes are stored CSR-style: the offsets of shape s are offsets[start[s]] up to
+     offsets[start[s + 1]], and neighbour j of square i is i + offset. Edges (clipped or
+     wrapped) are already folded into the offsets, so loops over them never bounds-check.
+    -shape(r, c) is rowShape[r] + colShape[c], two array reads.
+
+ The table costs two ints per row and column plus the offsets, so it is built once per board.
+ */
+final class NeighbourTable {
+
+    final Topology topology;
+    final int[] start;
+    final int[] offsets;
+    //largest number of neighbours any square has
+    final int maxDegree;
+    private final int[] rowShape;
+    private final int[] colShape;
+
+    private NeighbourTable(Topology topology, int[] start, int[] offsets, int maxDegree,
+                           int[] rowShape, int[] colShape) {
+        this.topology = topology;
+        this.start = start;
+        this.offsets = offsets;
+        this.maxDegree = maxDegree;
+        this.rowShape = rowShape;
+        this.colShape = colShape;
+    }
+
+    int shape(int r, int c) {
+        return rowShape[r] + colShape[c];
+    }
+
+    static NeighbourTable build(Topology topology, int rows, int cols) {
+        //rowClass[r] numbers the distinct (distance to top, distance to bottom, parity) rows
+        int[] rowClass = new int[rows];
+        int[] rowSample = classify(rows, topology.reach, topology.rowParity, rowClass);
+        int[] colClass = new int[cols];
+        int[] colSample = classify(cols, topology.reach, false, colClass);
+
+        int shapes = rowSample.length * colSample.length;
+        int[] start = new int[shapes + 1];
+        IntList all = new IntList(shapes * 8);
+        IntList scratch = new IntList(16);
+        int maxDegree = 0;
+        for (int rc = 0; rc < rowSample.length; rc++) {
+            for (int cc = 0; cc < colSample.length; cc++) {
+                int r = rowSample[rc], c = colSample[cc], i = r * cols + c;
+                topology.neighbours(r, c, rows, cols, scratch);
+                for (int k = 0; k < scratch.size(); k++) {
+                    all.add(scratch.get(k) - i);
+                }
+                maxDegree = Math.max(maxDegree, scratch.size());
+                start[rc * colSample.length + cc + 1] = all.size();
+            }
+        }
+        int[] offsets = new int[all.size()];
+        for (int k = 0; k < offsets.length; k++) {
+            offsets[k] = all.get(k);
+        }
+        for (int r = 0; r < rows; r++) {
+            rowClass[r] *= colSample.length;
+        }
+        return new NeighbourTable(topology, start, offsets, maxDegree, rowClass, colClass);
+    }
+
+    /* gives each of n lines a class id by (distance to the low edge, distance to the high edge,
+     both capped at reach, and optionally parity); returns one sample line per class. */
+    private static int[] classify(int n, int reach, boolean parity, int[] classOf) {
+        int keys = (reach + 1) * (reach + 1) * 2;
+        int[] idOfKey = new int[keys];
+        Arrays.fill(idOfKey, -1);
+        int[] sample = new int[keys];
+        int classes = 0;
+        for (int x = 0; x < n; x++) {
+            int key = (Math.min(x, reach) * (reach + 1) + Math.min(n - 1 - x, reach)) * 2 + (parity ? x & 1 : 0);
+            if (idOfKey[key] < 0) {
+                idOfKey[key] = classes;
+                sample[classes++] = x;
+            }
+            classOf[x] = idOfKey[key];
+        }
+        return Arrays.copyOf(sample, classes);
+    }
+}
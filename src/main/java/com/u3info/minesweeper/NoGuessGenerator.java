@@ -0,0 +1,129 @@
+package com.u3info.minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ Generates boards that can be cleared from a given first click without ever guessing.
+
+    -Attempt k places mines from seed k, keeping the 3x3 block around the first click empty
+     so that click always opens a zero.
+    -Verify by playing it with the Solver: reveal a square it has proven safe, feed the
+     uncovered squares back, repeat. The attempt fails the moment the solver has no safe
+     square left and the board is not cleared yet.
+    -Workers claim attempt numbers from a shared counter. The lowest successful attempt
+     wins; any work on a higher attempt is abandoned as soon as a lower one succeeds.
+
+ Because the lowest successful attempt always wins, the board for a given seed does not
+ depend on the number of workers. Each worker reuses one Board and one Solver across its
+ attempts, so a failed attempt allocates nothing board-sized.
+ */
+final class NoGuessGenerator {
+
+    //attempt seeds are spread out so neighbouring attempts do not share Random state
+    private static final long ATTEMPT_STRIDE = 0x9E3779B97F4A7C15L;
+
+    static final class Result {
+        final Board board;
+        //0-based number of the winning attempt, and how many attempts ran in total
+        final int attempt;
+        final int attemptsTried;
+
+        private Result(Board board, int attempt, int attemptsTried) {
+            this.board = board;
+            this.attempt = attempt;
+            this.attemptsTried = attemptsTried;
+        }
+    }
+
+    private final ExecutorService pool;
+    private final int workers;
+
+    NoGuessGenerator(ExecutorService pool, int workers) {
+        if (workers < 1) throw new IllegalArgumentException("Workers must be at least 1");
+        this.pool = pool;
+        this.workers = workers;
+    }
+
+    Result generate(final int rows, final int cols, final int mines, final int firstRow, final int firstCol,
+                    final long seed, final int maxAttempts) {
+        Board.checkDimensions(rows, cols);
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger best = new AtomicInteger(Integer.MAX_VALUE);
+        final AtomicInteger tried = new AtomicInteger();
+
+        List<Future<?>> parts = new ArrayList<Future<?>>();
+        for (int w = 0; w < workers; w++) {
+            parts.add(pool.submit(() -> {
+                Board board = new Board(rows, cols);
+                Solver solver = null;
+                Random rng = new Random();
+                while (true) {
+                    int attempt = next.getAndIncrement();
+                    if (attempt >= maxAttempts || attempt > best.get()) return null;
+                    tried.incrementAndGet();
+                    board.clear();
+                    rng.setSeed(seed + attempt * ATTEMPT_STRIDE);
+                    board.placeMinesAvoiding(mines, rng, firstRow, firstCol);
+                    if (solver == null) solver = new Solver(board);
+                    if (solvable(board, solver, firstRow, firstCol, attempt, best)) {
+                        lowerTo(best, attempt);
+                        //later attempts of this worker are all higher, so it is done
+                        return null;
+                    }
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> part : parts) {
+                part.get();
+            }
+            int winning = best.get();
+            if (winning == Integer.MAX_VALUE) {
+                throw new IllegalStateException("No guess-free board in " + maxAttempts + " attempts");
+            }
+            //placing the winning layout again is cheaper than handing a worker's buffer out
+            Board winner = new Board(rows, cols);
+            Random rng = new Random(seed + winning * ATTEMPT_STRIDE);
+            winner.placeMinesAvoiding(mines, rng, firstRow, firstCol);
+            return new Result(winner, winning, tried.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generation interrupted", ex);
+        } catch (ExecutionException ex) {
+            //a bad mine count or first click fails the same way in every worker
+            if (ex.getCause() instanceof IllegalArgumentException) throw (IllegalArgumentException) ex.getCause();
+            throw new IllegalStateException("Generation failed", ex.getCause());
+        }
+    }
+
+    /* plays the board with proven-safe moves only. Gives up as soon as no safe square is
+     left, or when another worker has already succeeded with a lower attempt. */
+    static boolean solvable(Board board, Solver solver, int firstRow, int firstCol,
+                            int attempt, AtomicInteger best) {
+        board.setChangeTracking(true);
+        board.reveal(firstRow, firstCol);
+        solver.reset();
+        while (!board.allNonMinesRevealed()) {
+            if (attempt > best.get()) return false;
+            int move = solver.nextSafe();
+            if (move < 0) return false;
+            board.reveal(move / board.getCols(), move % board.getCols());
+            solver.update(board.lastChanges());
+        }
+        return true;
+    }
+
+    private static void lowerTo(AtomicInteger best, int attempt) {
+        int cur;
+        while (attempt < (cur = best.get())) {
+            if (best.compareAndSet(cur, attempt)) return;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.u3info.minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ Places mines and computes adjacent counts for a huge board on a fork-join pool.
+
+    -Split the rows into stripes and decide how many mines each stripe gets.
+    -Phase 1: every stripe places its mines (Floyd's sampling) with its own RNG substream.
+    -Phase 2: every stripe runs the sliding-window adjacency pass over its own rows.
+
+ Phase 2 starts only after phase 1 has finished, so a stripe reading the mine bits of its
+ neighbours' boundary rows always sees final values, and each stripe only writes its own rows.
+
+ Mines are spread over stripes in proportion to their size; the leftover mines go to stripes
+ picked by the seed. The substreams are split from one SplittableRandom in stripe order, so
+ the same (seed, stripes) pair always gives the same board whatever the pool size is.
+ The board's TileIndex and ZeroRegions, if enabled, are rebuilt afterwards as placeMines does.
+ */
+final class ParallelBoardSetup {
+
+    private final ForkJoinPool pool;
+
+    ParallelBoardSetup(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    void placeMines(Board board, int minesCount, long seed, int stripes) {
+        int rows = board.getRows(), cols = board.getCols();
+        int max = Board.maxMines(rows, cols);
+        if (minesCount < 1 || minesCount > max) {
+            throw new IllegalArgumentException("Mines must be between 1 and " + max);
+        }
+        if (stripes < 1) throw new IllegalArgumentException("Stripes must be at least 1");
+        stripes = Math.min(stripes, rows);
+
+        final int[] rowFrom = new int[stripes + 1];
+        for (int s = 0; s <= stripes; s++) {
+            rowFrom[s] = (int) ((long) rows * s / stripes);
+        }
+
+        SplittableRandom master = new SplittableRandom(seed);
+        final int[] mines = shareMines(minesCount, rowFrom, cols, board.getTotalCells(), master);
+        final SplittableRandom[] streams = new SplittableRandom[stripes];
+        for (int s = 0; s < stripes; s++) {
+            streams[s] = master.split();
+        }
+
+        List<ForkJoinTask<?>> placing = new ArrayList<ForkJoinTask<?>>();
+        List<ForkJoinTask<?>> counting = new ArrayList<ForkJoinTask<?>>();
+        for (int s = 0; s < stripes; s++) {
+            final int stripe = s;
+            final int from = rowFrom[s] * cols;
+            final int n = (rowFrom[s + 1] - rowFrom[s]) * cols;
+            placing.add(ForkJoinTask.adapt(() -> board.placeMinesInRange(from, n, mines[stripe], streams[stripe])));
+            counting.add(ForkJoinTask.adapt(() -> board.computeAdjacentRows(rowFrom[stripe], rowFrom[stripe + 1])));
+        }
+        pool.submit(() -> ForkJoinTask.invokeAll(placing)).join();
+        pool.submit(() -> ForkJoinTask.invokeAll(counting)).join();
+        board.setTotalMines(minesCount);
+        board.rebuildIndexes();
+    }
+
+    //proportional share per stripe, then one extra mine for `leftover` distinct stripes
+    private static int[] shareMines(int minesCount, int[] rowFrom, int cols, long totalCells, SplittableRandom rng) {
+        int stripes = rowFrom.length - 1;
+        int[] mines = new int[stripes];
+        int assigned = 0;
+        for (int s = 0; s < stripes; s++) {
+            long cells = (long) (rowFrom[s + 1] - rowFrom[s]) * cols;
+            mines[s] = (int) (minesCount * cells / totalCells);
+            assigned += mines[s];
+        }
+        //Floyd's sampling again, over stripe numbers; at 35% density every stripe has room for one more
+        int leftover = minesCount - assigned;
+        boolean[] extra = new boolean[stripes];
+        for (int j = stripes - leftover; j < stripes; j++) {
+            int t = rng.nextInt(j + 1);
+            extra[extra[t] ? j : t] = true;
+        }
+        for (int s = 0; s < stripes; s++) {
+            if (extra[s]) mines[s]++;
+        }
+        return mines;
+    }
+}
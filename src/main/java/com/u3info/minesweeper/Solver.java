@@ -0,0 +1,426 @@
+package com.u3info.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ Reasons about what a player can see: which squares are revealed and the counts on them.
+ It never reads the mine bit of a hidden square.
+
+    -Every revealed number is a constraint: "r of these u hidden squares are mines", after
+     taking out neighbours already known to be mines.
+    -Single-cell rule: r == 0 makes all u safe, r == u makes all u mines.
+    -Subset rule: for two numbers within two squares of each other, if one's hidden set is
+     inside the other's, the squares left over hold the difference of their counts.
+    -What the rules cannot settle is enumerated: hidden squares next to numbers are grouped
+     into independent frontier components and every consistent layout of a component is
+     counted, as long as it has at most maxEnumerated squares. A square that is a mine in
+     none (or all) of the layouts is safe (or a mine); otherwise the share of layouts with a
+     mine on it is its probability. Layouts are weighted equally, which ignores how many
+     mines are left for the rest of the board.
+
+ Work is incremental: update(changes) only re-examines the numbers around the squares that
+ were just revealed, and only the components those numbers belong to are enumerated again.
+ Not thread-safe: one solver per board.
+ */
+final class Solver {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte SAFE = 1;
+    private static final byte MINE = 2;
+
+    static final int DEFAULT_MAX_ENUMERATED = 20;
+
+    private final Board board;
+    private final int rows;
+    private final int cols;
+    private final int maxEnumerated;
+    private final byte[] known;
+    //mine probability of hidden frontier squares from the last enumeration; NaN where unknown
+    private final float[] probability;
+    private final boolean[] dirty;
+    private final IntQueue dirtyQueue = new IntQueue(64);
+    //numbers examined since the last enumeration; their components are enumerated again
+    private final IntList touched = new IntList(64);
+    private final IntList safeFound = new IntList(64);
+    private final IntList minesFound = new IntList(64);
+    private int knownMines;
+    //safeFound entries before this one are all revealed already
+    private int safeCursor;
+
+    //component search scratch, stamped so it never has to be cleared
+    private final int[] seen;
+    private int stamp;
+    private final IntList vars = new IntList(32);
+    private final IntList constraints = new IntList(32);
+    private final IntQueue componentQueue = new IntQueue(64);
+    private final int[] hidden = new int[8];
+    private final int[] otherHidden = new int[8];
+
+    Solver(Board board) {
+        this(board, DEFAULT_MAX_ENUMERATED);
+    }
+
+    Solver(Board board, int maxEnumerated) {
+        if (maxEnumerated < 0 || maxEnumerated > 62) {
+            throw new IllegalArgumentException("maxEnumerated must be between 0 and 62");
+        }
+        //the rules below walk the classic 3x3 neighbourhood directly
+        if (board.getTopology() != Topology.SQUARE) {
+            throw new IllegalArgumentException("The solver only supports square topology boards");
+        }
+        this.board = board;
+        this.rows = board.getRows();
+        this.cols = board.getCols();
+        this.maxEnumerated = maxEnumerated;
+        int n = board.getTotalCells();
+        this.known = new byte[n];
+        this.probability = new float[n];
+        this.dirty = new boolean[n];
+        this.seen = new int[n];
+        reset();
+    }
+
+    //forgets everything and reads the board again, reusing this solver's arrays
+    void reset() {
+        Arrays.fill(known, UNKNOWN);
+        Arrays.fill(probability, Float.NaN);
+        Arrays.fill(dirty, false);
+        dirtyQueue.clear();
+        touched.clear();
+        safeFound.clear();
+        minesFound.clear();
+        knownMines = 0;
+        safeCursor = 0;
+        for (int i = 0; i < known.length; i++) {
+            if (board.isRevealed(i)) markDirty(i);
+        }
+        solve();
+    }
+
+    //re-examines the numbers on and around the given newly revealed squares
+    void update(IntList revealed) {
+        for (int k = 0; k < revealed.size(); k++) {
+            int i = revealed.get(k);
+            markDirty(i);
+            markNeighboursDirty(i);
+        }
+        solve();
+    }
+
+    boolean isKnownSafe(int i) {
+        return known[i] == SAFE;
+    }
+
+    boolean isKnownMine(int i) {
+        return known[i] == MINE;
+    }
+
+    //squares known to be safe that are still hidden, in the order they were deduced
+    IntList safeCells(IntList out) {
+        out.clear();
+        for (int k = 0; k < safeFound.size(); k++) {
+            int i = safeFound.get(k);
+            if (!board.isRevealed(i)) out.add(i);
+        }
+        return out;
+    }
+
+    //squares known to be mines, in the order they were deduced
+    IntList mines() {
+        return minesFound;
+    }
+
+    /* mine probability of hidden square i: exact for known squares and enumerated frontier
+     squares, otherwise the density of the mines nobody has located yet. */
+    double probability(int i) {
+        if (known[i] == MINE) return 1;
+        if (known[i] == SAFE || board.isRevealed(i)) return 0;
+        float p = probability[i];
+        if (!Float.isNaN(p)) return p;
+        int hiddenLeft = board.getTotalCells() - board.getRevealedCount() - knownMines;
+        return hiddenLeft <= 0 ? 0 : (double) (board.getTotalMines() - knownMines) / hiddenLeft;
+    }
+
+    //the oldest known-safe square that is still hidden, or -1
+    int nextSafe() {
+        for (int k = safeCursor; k < safeFound.size(); k++) {
+            int i = safeFound.get(k);
+            if (!board.isRevealed(i)) return i;
+            //squares never get hidden again, so this one can be skipped for good
+            if (k == safeCursor) safeCursor++;
+        }
+        return -1;
+    }
+
+    //a hidden known-safe square if there is one, else the least likely mine, else -1
+    int nextMove() {
+        int safe = nextSafe();
+        if (safe >= 0) return safe;
+        int best = -1;
+        double bestP = 2;
+        for (int i = 0; i < known.length; i++) {
+            if (board.isRevealed(i) || known[i] == MINE) continue;
+            double p = probability(i);
+            if (p < bestP) {
+                bestP = p;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /* MoveStrategy.SOLVER: one solver for one game, fed the squares each move uncovered
+     (the board's lastChanges, tracked by BatchRunner.play). The first move is random. */
+    static MoveStrategy.Chooser chooser(final Board board) {
+        final Solver solver = new Solver(board);
+        return rng -> {
+            if (board.getRevealedCount() == 0) return rng.nextInt(board.getTotalCells());
+            solver.update(board.lastChanges());
+            return solver.nextMove();
+        };
+    }
+
+    private void solve() {
+        //enumeration can settle squares, which wakes their numbers up again
+        while (true) {
+            propagate();
+            if (touched.size() == 0 || maxEnumerated == 0) {
+                touched.clear();
+                return;
+            }
+            int before = safeFound.size() + minesFound.size();
+            enumerateTouched();
+            if (safeFound.size() + minesFound.size() == before) return;
+        }
+    }
+
+    private void propagate() {
+        while (!dirtyQueue.isEmpty()) {
+            int i = dirtyQueue.poll();
+            dirty[i] = false;
+            int u = collectHidden(i, hidden);
+            if (u == 0) continue;
+            touched.add(i);
+            int remaining = remaining(i);
+            if (remaining == 0 || remaining == u) {
+                byte state = remaining == 0 ? SAFE : MINE;
+                for (int k = 0; k < u; k++) settle(hidden[k], state);
+                continue;
+            }
+            applySubsetRule(i, u, remaining);
+        }
+    }
+
+    private void applySubsetRule(int i, int u, int remaining) {
+        int r = i / cols, c = i % cols;
+        for (int nr = Math.max(0, r - 2); nr <= Math.min(rows - 1, r + 2); nr++) {
+            for (int nc = Math.max(0, c - 2); nc <= Math.min(cols - 1, c + 2); nc++) {
+                int j = nr * cols + nc;
+                if (j == i) continue;
+                int v = collectHidden(j, otherHidden);
+                if (v == 0 || v == u) continue;
+                boolean settled;
+                if (v > u && contains(otherHidden, v, hidden, u)) {
+                    settled = settleDifference(otherHidden, v, hidden, u, remaining(j) - remaining);
+                } else if (v < u && contains(hidden, u, otherHidden, v)) {
+                    settled = settleDifference(hidden, u, otherHidden, v, remaining - remaining(j));
+                } else {
+                    continue;
+                }
+                if (!settled) continue;
+                //settling changed this number's own hidden set
+                u = collectHidden(i, hidden);
+                if (u == 0) return;
+                remaining = remaining(i);
+            }
+        }
+    }
+
+    //outer minus inner holds exactly extra mines: settle it if that makes it all safe or all mines
+    private boolean settleDifference(int[] outer, int outerSize, int[] inner, int innerSize, int extra) {
+        if (extra != 0 && extra != outerSize - innerSize) return false;
+        byte state = extra == 0 ? SAFE : MINE;
+        for (int k = 0; k < outerSize; k++) {
+            if (!contains(inner, innerSize, outer[k])) settle(outer[k], state);
+        }
+        return true;
+    }
+
+    private void settle(int i, byte state) {
+        if (known[i] != UNKNOWN) return;
+        known[i] = state;
+        if (state == MINE) {
+            knownMines++;
+            minesFound.add(i);
+            probability[i] = 1;
+        } else {
+            safeFound.add(i);
+            probability[i] = 0;
+        }
+        markNeighboursDirty(i);
+    }
+
+    private void enumerateTouched() {
+        stamp++;
+        for (int t = 0; t < touched.size(); t++) {
+            int start = touched.get(t);
+            if (seen[start] == stamp || collectHidden(start, hidden) == 0) continue;
+            collectComponent(start);
+            if (vars.size() > maxEnumerated) {
+                for (int k = 0; k < vars.size(); k++) probability[vars.get(k)] = Float.NaN;
+                continue;
+            }
+            enumerateComponent();
+        }
+        touched.clear();
+    }
+
+    //flood over "number - hidden neighbour" links, collecting one independent component
+    private void collectComponent(int start) {
+        vars.clear();
+        constraints.clear();
+        componentQueue.clear();
+        seen[start] = stamp;
+        componentQueue.add(start);
+        while (!componentQueue.isEmpty()) {
+            int cur = componentQueue.poll();
+            boolean isNumber = board.isRevealed(cur);
+            if (isNumber) constraints.add(cur);
+            else vars.add(cur);
+            int r = cur / cols, c = cur % cols;
+            for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+                for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                    int j = nr * cols + nc;
+                    if (seen[j] == stamp) continue;
+                    boolean link = isNumber ? !board.isRevealed(j) && known[j] == UNKNOWN
+                            : board.isRevealed(j) && collectHidden(j, otherHidden) > 0;
+                    if (!link) continue;
+                    seen[j] = stamp;
+                    componentQueue.add(j);
+                }
+            }
+        }
+    }
+
+    /* depth-first over the component's squares in discovery order, so neighbouring squares
+     are assigned together and broken constraints are caught early. */
+    private void enumerateComponent() {
+        int nv = vars.size(), nc = constraints.size();
+        int[] need = new int[nc];
+        int[] open = new int[nc];
+        int[][] varConstraints = new int[nv][];
+        for (int k = 0; k < nc; k++) {
+            int ci = constraints.get(k);
+            need[k] = remaining(ci);
+            open[k] = collectHidden(ci, hidden);
+        }
+        for (int v = 0; v < nv; v++) {
+            int vi = vars.get(v);
+            int[] tmp = new int[8];
+            int count = 0;
+            for (int k = 0; k < nc; k++) {
+                if (isNeighbour(vi, constraints.get(k))) tmp[count++] = k;
+            }
+            varConstraints[v] = Arrays.copyOf(tmp, count);
+        }
+        long[] mineCounts = new long[nv];
+        long solutions = enumerate(0, 0L, varConstraints, need, open, mineCounts);
+        if (solutions == 0) return;
+        for (int v = 0; v < nv; v++) {
+            int vi = vars.get(v);
+            if (mineCounts[v] == 0) settle(vi, SAFE);
+            else if (mineCounts[v] == solutions) settle(vi, MINE);
+            else probability[vi] = (float) ((double) mineCounts[v] / solutions);
+        }
+    }
+
+    private long enumerate(int v, long assignment, int[][] varConstraints, int[] need, int[] open,
+                           long[] mineCounts) {
+        if (v == varConstraints.length) {
+            for (int k = 0; k < mineCounts.length; k++) {
+                if ((assignment & (1L << k)) != 0) mineCounts[k]++;
+            }
+            return 1;
+        }
+        long solutions = 0;
+        int[] cs = varConstraints[v];
+        for (int mine = 0; mine <= 1; mine++) {
+            boolean ok = true;
+            for (int c : cs) {
+                open[c]--;
+                need[c] -= mine;
+                if (need[c] < 0 || need[c] > open[c]) ok = false;
+            }
+            if (ok) {
+                solutions += enumerate(v + 1, assignment | ((long) mine << v), varConstraints, need, open, mineCounts);
+            }
+            for (int c : cs) {
+                open[c]++;
+                need[c] += mine;
+            }
+        }
+        return solutions;
+    }
+
+    //hidden neighbours of number i that are not settled yet
+    private int collectHidden(int i, int[] out) {
+        if (!board.isRevealed(i) || board.adjacent(i) < 0) return 0;
+        int r = i / cols, c = i % cols;
+        int u = 0;
+        for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+            for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                int j = nr * cols + nc;
+                if (j != i && !board.isRevealed(j) && known[j] == UNKNOWN) out[u++] = j;
+            }
+        }
+        return u;
+    }
+
+    //the count on number i minus the neighbours already known to be mines
+    private int remaining(int i) {
+        int r = i / cols, c = i % cols;
+        int left = board.adjacent(i);
+        for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+            for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                if (known[nr * cols + nc] == MINE) left--;
+            }
+        }
+        return left;
+    }
+
+    private void markDirty(int i) {
+        if (dirty[i]) return;
+        dirty[i] = true;
+        dirtyQueue.add(i);
+    }
+
+    private void markNeighboursDirty(int i) {
+        int r = i / cols, c = i % cols;
+        for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+            for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                int j = nr * cols + nc;
+                if (j != i && board.isRevealed(j)) markDirty(j);
+            }
+        }
+    }
+
+    private boolean isNeighbour(int a, int b) {
+        int dr = a / cols - b / cols, dc = a % cols - b % cols;
+        return dr >= -1 && dr <= 1 && dc >= -1 && dc <= 1 && a != b;
+    }
+
+    private static boolean contains(int[] set, int size, int value) {
+        for (int k = 0; k < size; k++) {
+            if (set[k] == value) return true;
+        }
+        return false;
+    }
+
+    //every element of inner is in outer
+    private static boolean contains(int[] outer, int outerSize, int[] inner, int innerSize) {
+        for (int k = 0; k < innerSize; k++) {
+            if (!contains(outer, outerSize, inner[k])) return false;
+        }
+        return true;
+    }
+}
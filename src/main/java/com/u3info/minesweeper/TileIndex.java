@@ -0,0 +1,125 @@
+package com.u3info.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ Per-tile summary of a Board, for queries that should not scan every square.
+
+    -The board is cut into 64x64 tiles (smaller along the right and bottom edges).
+    -Each tile keeps how many of its safe squares are still hidden and the list of its mines.
+    -Board updates the counts as squares are revealed and moves entries when a mine moves,
+     so nothing is rescanned after build.
+
+ Revealing every mine at the end of a game then touches only the mines, and "how much is
+ left here" is one array read per tile.
+ */
+final class TileIndex {
+
+    static final int SHIFT = 6;
+    static final int SIZE = 1 << SHIFT;
+
+    private final int cols;
+    private final int tileRows;
+    private final int tileCols;
+    private final int[] hiddenSafe;
+    private final int[][] mines;
+    private final int[] mineCount;
+    private int totalHiddenSafe;
+
+    private TileIndex(int rows, int cols) {
+        this.cols = cols;
+        this.tileRows = (rows + SIZE - 1) >> SHIFT;
+        this.tileCols = (cols + SIZE - 1) >> SHIFT;
+        int tiles = tileRows * tileCols;
+        this.hiddenSafe = new int[tiles];
+        this.mines = new int[tiles][];
+        this.mineCount = new int[tiles];
+    }
+
+    //one pass over the board: counts first, then mine lists sized exactly
+    static TileIndex build(Board board) {
+        int rows = board.getRows(), cols = board.getCols();
+        TileIndex index = new TileIndex(rows, cols);
+        for (int r = 0; r < rows; r++) {
+            int rowTiles = (r >> SHIFT) * index.tileCols;
+            for (int c = 0, i = r * cols; c < cols; c++, i++) {
+                int t = rowTiles + (c >> SHIFT);
+                if (board.isMine(i)) index.mineCount[t]++;
+                else if (!board.isRevealed(i)) index.hiddenSafe[t]++;
+            }
+        }
+        for (int t = 0; t < index.mines.length; t++) {
+            index.totalHiddenSafe += index.hiddenSafe[t];
+            index.mines[t] = new int[index.mineCount[t]];
+            index.mineCount[t] = 0;
+        }
+        for (int r = 0; r < rows; r++) {
+            int rowTiles = (r >> SHIFT) * index.tileCols;
+            for (int c = 0, i = r * cols; c < cols; c++, i++) {
+                if (!board.isMine(i)) continue;
+                int t = rowTiles + (c >> SHIFT);
+                index.mines[t][index.mineCount[t]++] = i;
+            }
+        }
+        return index;
+    }
+
+    int tileRows() {
+        return tileRows;
+    }
+
+    int tileCols() {
+        return tileCols;
+    }
+
+    //hidden safe squares on the whole board; 0 means the game is won
+    int remainingSafe() {
+        return totalHiddenSafe;
+    }
+
+    int remainingSafe(int tileRow, int tileCol) {
+        return hiddenSafe[tileRow * tileCols + tileCol];
+    }
+
+    int mineCount(int tileRow, int tileCol) {
+        return mineCount[tileRow * tileCols + tileCol];
+    }
+
+    //a safe square at (r, c) has just been revealed
+    void revealedSafe(int r, int c) {
+        hiddenSafe[(r >> SHIFT) * tileCols + (c >> SHIFT)]--;
+        totalHiddenSafe--;
+    }
+
+    //a mine moved from one hidden square to another
+    void moveMine(int from, int to) {
+        int ft = tileOf(from), tt = tileOf(to);
+        int[] list = mines[ft];
+        for (int k = 0; k < mineCount[ft]; k++) {
+            if (list[k] == from) {
+                list[k] = list[--mineCount[ft]];
+                break;
+            }
+        }
+        if (mineCount[tt] == mines[tt].length) {
+            mines[tt] = Arrays.copyOf(mines[tt], Math.max(4, mines[tt].length * 2));
+        }
+        mines[tt][mineCount[tt]++] = to;
+        hiddenSafe[ft]++;
+        hiddenSafe[tt]--;
+    }
+
+    //sets the revealed bit of every mine, visiting the mine lists only
+    void revealMines(Board board) {
+        for (int t = 0; t < mines.length; t++) {
+            int[] list = mines[t];
+            for (int k = 0; k < mineCount[t]; k++) {
+                board.setRevealed(list[k], true);
+            }
+        }
+    }
+
+    private int tileOf(int i) {
+        return ((i / cols) >> SHIFT) * tileCols + ((i % cols) >> SHIFT);
+    }
+}
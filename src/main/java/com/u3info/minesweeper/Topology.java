@@ -0,0 +1,91 @@
+package com.u3info.minesweeper;
+
+/**
+ Which squares count as neighbours, i.e. which squares a number counts and a flood fill opens.
+
+    -SQUARE: the classic 8 neighbours, clipped at the edges.
+    -TOROIDAL: the same 8, but the edges wrap around, so every square has 8 neighbours.
+    -HEXAGONAL: hexes in "odd-r" layout: odd rows sit half a square to the right, so a hex
+     touches 2 squares in its own row and 2 in each row above and below (6, clipped at the edges).
+    -KNIGHT: the 8 squares a chess knight reaches, clipped at the edges.
+
+ neighbours() is the plain, bounds-checked definition. Boards never call it per move: they
+ use a NeighbourTable built from it once per board size.
+ */
+enum Topology {
+    SQUARE(1, false) {
+        @Override
+        void addNeighbours(int r, int c, int rows, int cols, IntList out) {
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    addClipped(r, c, r + dr, c + dc, rows, cols, out);
+                }
+            }
+        }
+    },
+    TOROIDAL(1, false) {
+        @Override
+        void addNeighbours(int r, int c, int rows, int cols, IntList out) {
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    int nr = (r + dr + rows) % rows, nc = (c + dc + cols) % cols;
+                    addUnique(r * cols + c, nr * cols + nc, out);
+                }
+            }
+        }
+    },
+    HEXAGONAL(1, true) {
+        @Override
+        void addNeighbours(int r, int c, int rows, int cols, IntList out) {
+            //columns of the neighbours above and below: c-1 and c on even rows, c and c+1 on odd ones
+            int shift = r & 1;
+            addClipped(r, c, r, c - 1, rows, cols, out);
+            addClipped(r, c, r, c + 1, rows, cols, out);
+            for (int dr = -1; dr <= 1; dr += 2) {
+                addClipped(r, c, r + dr, c - 1 + shift, rows, cols, out);
+                addClipped(r, c, r + dr, c + shift, rows, cols, out);
+            }
+        }
+    },
+    KNIGHT(2, false) {
+        @Override
+        void addNeighbours(int r, int c, int rows, int cols, IntList out) {
+            for (int dr = -2; dr <= 2; dr++) {
+                for (int dc = -2; dc <= 2; dc++) {
+                    if (Math.abs(dr * dc) == 2) addClipped(r, c, r + dr, c + dc, rows, cols, out);
+                }
+            }
+        }
+    };
+
+    //how many rows or columns away a neighbour can be
+    final int reach;
+    //whether the neighbourhood depends on the parity of the row
+    final boolean rowParity;
+
+    Topology(int reach, boolean rowParity) {
+        this.reach = reach;
+        this.rowParity = rowParity;
+    }
+
+    //fills out with the packed indices of the neighbours of (r, c): no duplicates, never (r, c) itself
+    void neighbours(int r, int c, int rows, int cols, IntList out) {
+        out.clear();
+        addNeighbours(r, c, rows, cols, out);
+    }
+
+    abstract void addNeighbours(int r, int c, int rows, int cols, IntList out);
+
+    private static void addClipped(int r, int c, int nr, int nc, int rows, int cols, IntList out) {
+        if (nr >= 0 && nr < rows && nc >= 0 && nc < cols) addUnique(r * cols + c, nr * cols + nc, out);
+    }
+
+    //on boards narrower than the neighbourhood, wrapping can reach a square twice or the square itself
+    private static void addUnique(int self, int j, IntList out) {
+        if (j == self) return;
+        for (int k = 0; k < out.size(); k++) {
+            if (out.get(k) == j) return;
+        }
+        out.add(j);
+    }
+}
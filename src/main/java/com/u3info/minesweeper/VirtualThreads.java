@@ -0,0 +1,60 @@
+package com.u3info.minesweeper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* Thread-per-task executors for blocking sessions.
+
+ On Java 21+ this is Executors.newVirtualThreadPerTaskExecutor(), so thousands of sessions that
+ mostly wait on their sockets cost a few KB each. The build targets Java 17, which has no
+ virtual threads, so the method is looked up reflectively. On 17 the executor falls back to a
+ pool of at most PLATFORM_THREADS daemon platform threads (-Dminesweeper.platformThreads,
+ default 512); tasks beyond that wait in the pool's queue instead of each starting an OS
+ thread, and sessionLimit caps servers at the same number.
+ */
+final class VirtualThreads {
+
+    static final int PLATFORM_THREADS = Math.max(1, Integer.getInteger("minesweeper.platformThreads", 512));
+
+    private VirtualThreads() {
+    }
+
+    static ExecutorService perTaskExecutor(String name) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(PLATFORM_THREADS, PLATFORM_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), daemonThreads(name));
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+
+    static boolean available() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    //how many blocking sessions can run at once: all requested on virtual threads, else the pool size
+    static int sessionLimit(int requested) {
+        return available() ? requested : Math.min(requested, PLATFORM_THREADS);
+    }
+
+    private static ThreadFactory daemonThreads(final String name) {
+        final AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,187 @@
+package com.u3info.minesweeper;
+
+/**
+ Every connected region of zeros on a Board, found once so a flood fill does not have to
+ rediscover it on each click.
+
+    -Built with union-find over the zeros (union by size, path halving), following the
+     board's NeighbourTable, so it works on every topology.
+    -Region k's squares sit in one range of a shared array: its zeros from start[k] to
+     memberEnd[k], then its numbered border up to start[k + 1]. A border square next to
+     two regions is listed in both.
+    -regionOf maps a square to its region, or -1 for numbers and mines.
+
+ A click on a zero whose region is untouched (every other zero in it hidden and unflagged)
+ opens exactly the region and its hidden, unflagged border, which is what the BFS would find,
+ so reveal() just marks the range. Any other region is left to the regular fill. Costs an
+ int per square plus the ranges. Board rebuilds it, O(N), when mines are placed; after a
+ mine is moved it is only marked stale and rebuilt off the click path (see
+ Board.enableZeroRegions).
+ */
+final class ZeroRegions {
+
+    private final int cols;
+    private final int[] regionOf;
+    private final int[] start;
+    private final int[] memberEnd;
+    private final int[] squares;
+
+    private ZeroRegions(int cols, int[] regionOf, int[] start, int[] memberEnd, int[] squares) {
+        this.cols = cols;
+        this.regionOf = regionOf;
+        this.start = start;
+        this.memberEnd = memberEnd;
+        this.squares = squares;
+    }
+
+    static ZeroRegions build(Board board) {
+        int n = board.getTotalCells();
+        NeighbourTable table = board.neighbours();
+        int[] offsets = table.offsets;
+        int cols = board.getCols();
+
+        //union-find over the zeros; parent[i] is -1 for every other square
+        int[] parent = new int[n];
+        int[] size = new int[n];
+        for (int i = 0; i < n; i++) {
+            boolean zero = board.adjacent(i) == 0;
+            parent[i] = zero ? i : -1;
+            size[i] = zero ? 1 : 0;
+        }
+        for (int i = 0; i < n; i++) {
+            if (parent[i] < 0) continue;
+            int shape = table.shape(i / cols, i % cols);
+            for (int k = table.start[shape], end = table.start[shape + 1]; k < end; k++) {
+                int j = i + offsets[k];
+                //every pair is seen from both sides, so joining towards higher indices is enough
+                if (j > i && parent[j] >= 0) union(parent, size, i, j);
+            }
+        }
+
+        //number the regions in order of their first square; size is free again and becomes regionOf
+        int[] regionOf = size;
+        int regions = 0;
+        for (int i = 0; i < n; i++) {
+            regionOf[i] = -1;
+        }
+        for (int i = 0; i < n; i++) {
+            if (parent[i] < 0) continue;
+            int root = find(parent, i);
+            if (regionOf[root] < 0) regionOf[root] = regions++;
+            regionOf[i] = regionOf[root];
+        }
+        int[] count = new int[regions];
+        for (int i = 0; i < n; i++) {
+            if (regionOf[i] >= 0) count[regionOf[i]]++;
+        }
+        //border squares: safe numbers next to a region, listed once per distinct region
+        int[] borderCount = new int[regions];
+        int[] seen = new int[table.maxDegree];
+        for (int i = 0; i < n; i++) {
+            if (board.adjacent(i) <= 0) continue;
+            int distinct = neighbourRegions(regionOf, table, cols, i, seen);
+            for (int d = 0; d < distinct; d++) borderCount[seen[d]]++;
+        }
+
+        int[] start = new int[regions + 1];
+        int[] memberEnd = new int[regions];
+        for (int k = 0; k < regions; k++) {
+            memberEnd[k] = start[k] + count[k];
+            start[k + 1] = memberEnd[k] + borderCount[k];
+        }
+        int[] squares = new int[start[regions]];
+        int[] fillMember = new int[regions];
+        int[] fillBorder = new int[regions];
+        for (int k = 0; k < regions; k++) {
+            fillMember[k] = start[k];
+            fillBorder[k] = memberEnd[k];
+        }
+        for (int i = 0; i < n; i++) {
+            int k = regionOf[i];
+            if (k >= 0) {
+                squares[fillMember[k]++] = i;
+            } else if (board.adjacent(i) > 0) {
+                int distinct = neighbourRegions(regionOf, table, cols, i, seen);
+                for (int d = 0; d < distinct; d++) squares[fillBorder[seen[d]]++] = i;
+            }
+        }
+        return new ZeroRegions(cols, regionOf, start, memberEnd, squares);
+    }
+
+    //number of regions
+    int count() {
+        return memberEnd.length;
+    }
+
+    //region of square i, or -1 if it is not a zero
+    int regionOf(int i) {
+        return regionOf[i];
+    }
+
+    //zeros in region k
+    int size(int k) {
+        return memberEnd[k] - start[k];
+    }
+
+    //numbered squares around region k
+    int borderSize(int k) {
+        return start[k + 1] - memberEnd[k];
+    }
+
+    /* opens the region of seed, a zero the caller has just revealed, and its border. Returns
+     how many squares were opened besides the seed, or -1 (with nothing changed) when another
+     zero of the region is already revealed or flagged and the caller has to flood instead. */
+    int reveal(byte[] cells, int seed, IntList changes, TileIndex tiles) {
+        int k = regionOf[seed];
+        if (k < 0) return -1;
+        for (int p = start[k], end = memberEnd[k]; p < end; p++) {
+            int i = squares[p];
+            if (i != seed && (cells[i] & (Board.REVEALED | Board.FLAGGED)) != 0) return -1;
+        }
+        int opened = 0;
+        for (int p = start[k], end = start[k + 1]; p < end; p++) {
+            int i = squares[p];
+            int v = cells[i];
+            if ((v & (Board.REVEALED | Board.FLAGGED)) != 0) continue;
+            cells[i] = (byte) (v | Board.REVEALED);
+            opened++;
+            if (changes != null) changes.add(i);
+            if (tiles != null) tiles.revealedSafe(i / cols, i % cols);
+        }
+        return opened;
+    }
+
+    //distinct regions next to square i, written to seen; returns how many
+    private static int neighbourRegions(int[] regionOf, NeighbourTable table, int cols, int i, int[] seen) {
+        int distinct = 0;
+        int shape = table.shape(i / cols, i % cols);
+        for (int k = table.start[shape], end = table.start[shape + 1]; k < end; k++) {
+            int region = regionOf[i + table.offsets[k]];
+            if (region < 0) continue;
+            boolean dup = false;
+            for (int d = 0; d < distinct && !dup; d++) dup = seen[d] == region;
+            if (!dup) seen[distinct++] = region;
+        }
+        return distinct;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int[] size, int a, int b) {
+        int ra = find(parent, a), rb = find(parent, b);
+        if (ra == rb) return;
+        if (size[ra] < size[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        parent[rb] = ra;
+        size[ra] += size[rb];
+    }
+}
@@ -0,0 +1,45 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class BatchRunnerTest {
+
+    @Test
+    void resultsDoNotDependOnParallelism() {
+        List<GameSpec> specs = BatchRunner.randomGames(200, 9, 9, 10, 1234L);
+        BatchStats single = new BatchRunner(1).run(specs);
+        BatchStats parallel = new BatchRunner(4).run(specs);
+
+        assertEquals(200, single.games);
+        assertEquals(single.games, single.won + single.lost + single.unfinished);
+        assertEquals(single.won, parallel.won);
+        assertEquals(single.lost, parallel.lost);
+        assertEquals(single.moves, parallel.moves);
+        assertEquals(single.cellsRevealed, parallel.cellsRevealed);
+        assertTrue(single.gamesPerSecond() > 0);
+    }
+
+    @Test
+    void scriptThatRevealsEverySafeSquareWins() {
+        long seed = 99L;
+        Board reference = new Board(5, 6);
+        reference.placeMines(4, new Random(seed), MinePlacement.FLOYD);
+        List<Integer> safe = new ArrayList<Integer>();
+        for (int i = 0; i < reference.getTotalCells(); i++) {
+            if (!reference.isMine(i)) safe.add(i);
+        }
+        int[] script = new int[safe.size()];
+        for (int k = 0; k < script.length; k++) script[k] = safe.get(k);
+
+        BatchStats stats = new BatchStats();
+        assertEquals(GameOutcome.WON, BatchRunner.play(GameSpec.scripted(5, 6, 4, seed, script), stats));
+        assertEquals(26, stats.cellsRevealed);
+        assertEquals(GameOutcome.UNFINISHED,
+            BatchRunner.play(GameSpec.scripted(5, 6, 4, seed, new int[]{safe.get(0)}), new BatchStats()));
+    }
+}
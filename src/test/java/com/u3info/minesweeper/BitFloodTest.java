@@ -0,0 +1,116 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+class BitFloodTest {
+
+    private static int[] sortedChanges(Board board) {
+        IntList changes = board.lastChanges();
+        int[] out = new int[changes.size()];
+        for (int k = 0; k < out.length; k++) out[k] = changes.get(k);
+        Arrays.sort(out);
+        return out;
+    }
+
+    //plays the same random clicks and flags on a BFS board and a bitboard one, comparing after each move
+    private static void playBoth(int rows, int cols, int mines, long seed) {
+        Board bfs = new Board(rows, cols);
+        Board bits = new Board(rows, cols);
+        bfs.placeMines(mines, new Random(seed), MinePlacement.FLOYD);
+        bits.placeMines(mines, new Random(seed), MinePlacement.FLOYD);
+        bits.setFloodFill(FloodFill.BITBOARD);
+        bfs.setChangeTracking(true);
+        bits.setChangeTracking(true);
+        bfs.enableTileIndex();
+        bits.enableTileIndex();
+
+        Random rng = new Random(seed * 31 + 7);
+        for (int move = 0; move < 40 && !bfs.allNonMinesRevealed(); move++) {
+            int r = rng.nextInt(rows), c = rng.nextInt(cols), i = bfs.index(r, c);
+            String where = rows + "x" + cols + " seed " + seed + " move " + move;
+            if (bfs.isRevealed(i)) continue;
+            if (rng.nextInt(5) == 0) {
+                bfs.toggleFlag(r, c);
+                bits.toggleFlag(r, c);
+                continue;
+            }
+            if (bfs.isMine(i) || bfs.isFlagged(i)) continue;
+            assertSame(bfs.reveal(r, c), bits.reveal(r, c), where);
+            assertArrayEquals(bfs.copyCells(), bits.copyCells(), where);
+            assertEquals(bfs.getRevealedCount(), bits.getRevealedCount(), where);
+            assertArrayEquals(sortedChanges(bfs), sortedChanges(bits), where);
+            assertEquals(bfs.tiles().remainingSafe(), bits.tiles().remainingSafe(), where);
+        }
+    }
+
+    @Test
+    void opensTheSameSquaresAsBfs() {
+        int[][] sizes = {{1, 1}, {1, 9}, {9, 1}, {9, 9}, {16, 30}, {63, 64}, {65, 65}, {40, 130}, {3, 200}};
+        for (int[] size : sizes) {
+            int cells = size[0] * size[1];
+            for (long seed = 0; seed < 12; seed++) {
+                int mines = (int) (cells * (0.02 + 0.03 * (seed % 4)));
+                if (mines < 1 || mines > Board.maxMines(size[0], size[1])) {
+                    //too small for mines: compare floods over an empty board
+                    Board bfs = new Board(size[0], size[1]);
+                    Board bits = new Board(size[0], size[1]);
+                    bits.setFloodFill(FloodFill.BITBOARD);
+                    bfs.reveal(0, 0);
+                    bits.reveal(0, 0);
+                    assertArrayEquals(bfs.copyCells(), bits.copyCells());
+                    assertEquals(bfs.getRevealedCount(), bits.getRevealedCount());
+                    continue;
+                }
+                playBoth(size[0], size[1], mines, seed);
+            }
+        }
+    }
+
+    @Test
+    void runsAcrossWordBoundariesAndAroundObstacles() {
+        //a serpentine wall of flags makes the region wind up and down and cross word edges
+        Board bfs = new Board(12, 200);
+        Board bits = new Board(12, 200);
+        bits.setFloodFill(FloodFill.BITBOARD);
+        for (int c = 10; c < 200; c += 20) {
+            for (int r = 0; r < 12; r++) {
+                int blocked = (c / 20) % 2 == 0 ? r : 11 - r;
+                if (blocked == 11) continue;
+                bfs.toggleFlag(r, c);
+                bits.toggleFlag(r, c);
+            }
+        }
+        bfs.reveal(0, 0);
+        bits.reveal(0, 0);
+        assertArrayEquals(bfs.copyCells(), bits.copyCells());
+        assertEquals(bfs.getRevealedCount(), bits.getRevealedCount());
+        assertTrue(bits.isRevealed(bits.index(0, 199)));
+    }
+
+    @Test
+    void revealAllFloodsThroughTheBitboard() {
+        Board bfs = new Board(64, 100);
+        Board bits = new Board(64, 100);
+        bfs.placeMines(300, new Random(8), MinePlacement.FLOYD);
+        bits.placeMines(300, new Random(8), MinePlacement.FLOYD);
+        bits.setFloodFill(FloodFill.BITBOARD);
+        IntList targets = new IntList(16);
+        for (int i = 0; i < bfs.getTotalCells() && targets.size() < 20; i += 97) {
+            if (!bfs.isMine(i)) targets.add(i);
+        }
+        Board.MoveSummary a = bfs.revealAll(targets);
+        Board.MoveSummary b = bits.revealAll(targets);
+        assertEquals(a.opened, b.opened);
+        assertArrayEquals(bfs.copyCells(), bits.copyCells());
+    }
+
+    @Test
+    void onlyOnSquareBoards() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new Board(8, 8, Topology.HEXAGONAL).setFloodFill(FloodFill.BITBOARD));
+    }
+}
@@ -0,0 +1,80 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+class BoardSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void gameInProgressSurvivesRoundTrip() throws IOException {
+        Board board = new Board(37, 53);
+        board.placeMines(300, new Random(8), MinePlacement.FLOYD);
+        for (int k = 0; k < 40; k++) {
+            int i = new Random(k).nextInt(board.getTotalCells());
+            if (!board.isMine(i)) board.reveal(i / 53, i % 53);
+        }
+        for (int i = 0; i < board.getTotalCells(); i += 97) {
+            if (!board.isRevealed(i)) board.toggleFlag(i / 53, i % 53);
+        }
+        Path file = dir.resolve("game.msw");
+        BoardSnapshot.write(board, 8L, file);
+
+        assertEquals(BoardSnapshot.HEADER_BYTES + 3 * ((37 * 53 + 7) / 8), Files.size(file));
+        Board restored = BoardSnapshot.read(file);
+        assertEquals(37, restored.getRows());
+        assertEquals(53, restored.getCols());
+        assertEquals(300, restored.getTotalMines());
+        assertEquals(board.getRevealedCount(), restored.getRevealedCount());
+        for (int i = 0; i < board.getTotalCells(); i++) {
+            assertEquals(board.isMine(i), restored.isMine(i));
+            assertEquals(board.isRevealed(i), restored.isRevealed(i));
+            assertEquals(board.isFlagged(i), restored.isFlagged(i));
+            assertEquals(board.adjacent(i), restored.adjacent(i));
+        }
+    }
+
+    @Test
+    void mappedViewAnswersWithoutLoadingTheBoard() throws IOException {
+        Board board = new Board(10, 12);
+        board.placeMines(20, new Random(2), MinePlacement.FLOYD);
+        board.reveal(9, 11);
+        Path file = dir.resolve("view.msw");
+        BoardSnapshot.write(board, 2L, file);
+
+        try (BoardSnapshot.View view = BoardSnapshot.open(file)) {
+            assertEquals(2L, view.seed);
+            assertEquals(board.getRevealedCount(), view.revealedCount);
+            for (int r = 0; r < 10; r++) {
+                for (int c = 0; c < 12; c++) {
+                    int i = board.index(r, c);
+                    assertEquals(board.isMine(i), view.isMine(r, c));
+                    assertEquals(board.isRevealed(i), view.isRevealed(r, c));
+                    assertEquals(board.adjacent(i), view.adjacent(r, c));
+                    assertFalse(view.isFlagged(r, c));
+                }
+            }
+            // (0, 12) would be (1, 0) without the range check
+            assertThrows(IllegalArgumentException.class, () -> view.isMine(0, 12));
+            assertThrows(IllegalArgumentException.class, () -> view.isRevealed(-1, 0));
+            assertThrows(IllegalArgumentException.class, () -> view.adjacent(10, 0));
+            assertThrows(IllegalArgumentException.class, () -> view.isFlagged(0, -1));
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotSnapshots() throws IOException {
+        Path file = dir.resolve("junk.msw");
+        Files.write(file, new byte[64]);
+        IOException ex = assertThrows(IOException.class, () -> BoardSnapshot.read(file));
+        assertTrue(ex.getMessage().contains("bad magic"));
+    }
+}
@@ -2,6 +2,7 @@ package com.u3info.minesweeper;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import java.lang.reflect.Field;
 import java.util.Random;
 
 class BoardTest {
@@ -19,6 +20,51 @@ class BoardTest {
         assertEquals(3, mines);
     }
 
+    @Test
+    void floydPlacementIsExactAndReproducible() {
+        Board a = new Board(20, 30);
+        Board b = new Board(20, 30);
+        int max = Board.maxMines(20, 30);
+        a.placeMines(max, new Random(7), MinePlacement.FLOYD);
+        b.placeMines(max, new Random(7), MinePlacement.FLOYD);
+
+        int mines = 0;
+        for (int i = 0; i < a.getTotalCells(); i++) {
+            assertEquals(a.isMine(i), b.isMine(i));
+            if (a.isMine(i)) mines++;
+        }
+        assertEquals(max, mines);
+    }
+
+    @Test
+    void incrementalAndSlidingWindowAdjacencyAgreeWithNeighbourScan() {
+        for (int seed = 0; seed < 20; seed++) {
+            int rows = 2 + seed % 7, cols = 2 + seed * 3 % 11;
+            int mines = Board.maxMines(rows, cols);
+            Board incremental = new Board(rows, cols);
+            Board window = new Board(rows, cols);
+            incremental.placeMines(mines, new Random(seed), MinePlacement.FLOYD, AdjacencyPass.INCREMENTAL);
+            window.placeMines(mines, new Random(seed), MinePlacement.FLOYD, AdjacencyPass.SLIDING_WINDOW);
+
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    int expected = 0;
+                    for (int rr = r - 1; rr <= r + 1; rr++) {
+                        for (int cc = c - 1; cc <= c + 1; cc++) {
+                            if ((rr != r || cc != c) && incremental.inBounds(rr, cc)
+                                && incremental.cell(rr, cc).isAMine()) expected++;
+                        }
+                    }
+                    int i = incremental.index(r, c);
+                    assertEquals(incremental.isMine(i), window.isMine(i));
+                    // counts are kept for mines as well, so compare the raw stored value
+                    assertEquals(expected, incremental.storedAdjacent(i));
+                    assertEquals(expected, window.storedAdjacent(i));
+                }
+            }
+        }
+    }
+
     @Test
     void coordinateMapperParsesValidInput() {
         CoordinateMapper coord = CoordinateMapper.parse("A1", 4);
@@ -94,4 +140,276 @@ class BoardTest {
         assertTrue(board.allNonMinesRevealed());
     }
 
+    @Test
+    void cellViewWritesThroughToPackedState() {
+        Board board = new Board(3);
+        board.cell(0, 2).setAMine(true);
+        board.cell(1, 1).setAdjacent(1);
+
+        assertTrue(board.isMine(board.index(0, 2)));
+        assertEquals(-1, board.cell(0, 2).getAdjacent());
+        assertEquals(1, board.adjacent(board.index(1, 1)));
+        assertFalse(board.cell(1, 1).isRevealed());
+
+        board.cell(1, 1).setRevealed(true);
+        assertTrue(board.isRevealed(board.index(1, 1)));
+        assertEquals(1, board.cell(1, 1).getAdjacent());
+    }
+
+    @Test
+    void floodRevealStopsAtNumberedBorder() {
+        Board board = new Board(5);
+        board.cell(4, 4).setAMine(true);
+        board.computeAdjacents();
+
+        Board.RevealResult result = board.reveal(0, 0);
+        assertEquals(0, result.adjacent);
+        assertEquals(24, board.getRevealedCount());
+        assertFalse(board.cell(4, 4).isRevealed());
+    }
+
+    @Test
+    void rectangularBoardsUseRowMajorIndexing() {
+        Board board = new Board(3, 7);
+        assertEquals(21, board.getTotalCells());
+        board.cell(2, 6).setAMine(true);
+        board.computeAdjacents();
+
+        assertEquals(1, board.cell(1, 5).getAdjacent());
+        assertEquals(0, board.cell(0, 6).getAdjacent());
+        board.reveal(0, 0);
+        assertEquals(20, board.getRevealedCount());
+        assertThrows(IllegalArgumentException.class, () -> board.reveal(3, 0));
+        assertThrows(IllegalArgumentException.class, () -> board.reveal(0, 7));
+    }
+
+    @Test
+    void dimensionAndDensityLimitsHoldAtScale() {
+        assertThrows(IllegalArgumentException.class, () -> new Board(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new Board(5, Board.MAX_SIDE + 1));
+        assertEquals(35_000_000, Board.maxMines(10_000, 10_000));
+        assertEquals(93_952_409, Board.maxMines(Board.MAX_SIDE, Board.MAX_SIDE));
+        assertEquals(5, Board.maxMines(4, 4));
+    }
+
+    //allocation per fill is measured by the JMH runs (gc.alloc.rate.norm); here: the queue is reused
+    @Test
+    void floodRevealReusesItsQueueOnceGrown() throws Exception {
+        Board board = splitBoard();
+        Field field = Board.class.getDeclaredField("floodQueue");
+        field.setAccessible(true);
+        IntQueue queue = (IntQueue) field.get(board);
+
+        // first fill grows the reusable queue to the size a half needs
+        board.reveal(0, 0);
+        int capacity = queue.capacity();
+        Board.RevealResult result = board.reveal(0, 63);
+
+        assertEquals(0, result.adjacent);
+        assertEquals(64 * 63, board.getRevealedCount());
+        assertSame(queue, field.get(board));
+        assertEquals(capacity, queue.capacity());
+    }
+
+    @Test
+    void movingAMineAwayKeepsEveryCountExact() {
+        for (int seed = 0; seed < 20; seed++) {
+            Board board = new Board(30, 16);
+            board.placeMines(160, new Random(seed), MinePlacement.FLOYD);
+            Random rng = new Random(seed);
+            int moved = 0;
+            for (int k = 0; k < 50; k++) {
+                int i = rng.nextInt(board.getTotalCells());
+                if (board.moveMineAway(i / 16, i % 16, rng)) moved++;
+                assertFalse(board.isMine(i));
+            }
+            assertTrue(moved > 0);
+
+            // the same mines counted from scratch
+            Board recount = new Board(30, 16);
+            int mines = 0;
+            for (int i = 0; i < board.getTotalCells(); i++) {
+                if (board.isMine(i)) {
+                    recount.setMine(i, true);
+                    mines++;
+                }
+            }
+            recount.computeAdjacents();
+            assertEquals(160, mines);
+            for (int i = 0; i < board.getTotalCells(); i++) {
+                assertEquals(recount.storedAdjacent(i), board.storedAdjacent(i), "seed " + seed + " square " + i);
+            }
+        }
+    }
+
+    @Test
+    void firstClickOnAMineIsMadeSafe() {
+        Board board = new Board(3, 3);
+        board.placeMines(3, new Random(5));
+        int mine = 0;
+        while (!board.isMine(mine)) mine++;
+        assertTrue(board.moveMineAway(mine / 3, mine % 3, new Random(1)));
+        assertFalse(board.reveal(mine / 3, mine % 3).hitMine);
+        assertFalse(board.moveMineAway(mine / 3, mine % 3, new Random(1)));
+    }
+
+    @Test
+    void movingAMineStopsWhenNoFreeSquareIsLeft() {
+        Board board = new Board(4, 4);
+        board.placeMines(5, new Random(2));
+        int mine = 0;
+        while (!board.isMine(mine)) mine++;
+        int last = -1;
+        for (int i = 0; i < 16; i++) {
+            if (board.isMine(i)) continue;
+            if (last >= 0) board.setRevealed(last, true);
+            last = i;
+        }
+        // one hidden safe square left: the mine can only go there
+        assertTrue(board.moveMineAway(mine / 4, mine % 4, new Random(3)));
+        assertTrue(board.isMine(last));
+        assertFalse(board.isMine(mine));
+
+        // with the square it left revealed as well, every safe square is open: nowhere to go
+        board.setRevealed(mine, true);
+        assertFalse(board.moveMineAway(last / 4, last % 4, new Random(3)));
+        assertTrue(board.isMine(last));
+    }
+
+    @Test
+    void flagsBlockRevealsAndFloodFills() {
+        Board board = new Board(1, 5);
+        board.setMine(4, true);
+        board.setTotalMines(1);
+        board.computeAdjacents();
+        assertTrue(board.toggleFlag(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> board.reveal(0, 2));
+
+        board.reveal(0, 0);
+        assertEquals(2, board.getRevealedCount());
+        assertFalse(board.isRevealed(2));
+        assertFalse(board.toggleFlag(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> board.toggleFlag(0, 0));
+    }
+
+    @Test
+    void chordOpensUnflaggedNeighboursOnceFlagsMatch() {
+        // mine at B2; A1 reads 1
+        Board board = new Board(3, 3);
+        board.setMine(board.index(1, 1), true);
+        board.setTotalMines(1);
+        board.computeAdjacents();
+        board.reveal(0, 0);
+
+        assertEquals(0, board.chord(0, 0).opened);
+        board.toggleFlag(1, 1);
+        Board.MoveSummary summary = board.chord(0, 0);
+        assertFalse(summary.hitMine);
+        assertEquals(2, summary.opened);
+        assertEquals(3, board.getRevealedCount());
+
+        // a wrong flag makes the chord step on the mine
+        board.toggleFlag(1, 1);
+        board.toggleFlag(1, 2);
+        board.reveal(2, 2);
+        Board.MoveSummary boom = board.chord(2, 2);
+        assertTrue(boom.hitMine);
+        assertEquals(board.index(1, 1), boom.mineSquare);
+    }
+
+    @Test
+    void revealAllRejectsABadIndexBeforeChangingAnything() {
+        Board board = new Board(5, 5);
+        board.setChangeTracking(true);
+        IntList batch = new IntList(4);
+        batch.add(0);
+        batch.add(12);
+        batch.add(25);
+        byte[] before = board.copyCells();
+        assertThrows(IllegalArgumentException.class, () -> board.revealAll(batch));
+        assertArrayEquals(before, board.copyCells());
+        assertEquals(0, board.getRevealedCount());
+        assertEquals(0, board.lastChanges().size());
+    }
+
+    @Test
+    void revealAllMatchesRevealingOneByOne() {
+        for (int seed = 0; seed < 30; seed++) {
+            Board batched = new Board(40, 25);
+            Board single = new Board(40, 25);
+            batched.placeMines(120, new Random(seed), MinePlacement.FLOYD);
+            single.placeMines(120, new Random(seed), MinePlacement.FLOYD);
+
+            IntList targets = new IntList(16);
+            Random rng = new Random(seed);
+            for (int k = 0; k < 60; k++) {
+                int i = rng.nextInt(1000);
+                if (!single.isMine(i)) targets.add(i);
+            }
+            for (int k = 0; k < targets.size(); k++) {
+                int i = targets.get(k);
+                single.reveal(i / 25, i % 25);
+            }
+            Board.MoveSummary summary = batched.revealAll(targets);
+
+            assertFalse(summary.hitMine);
+            assertEquals(single.getRevealedCount(), summary.opened);
+            assertArrayEquals(single.copyCells(), batched.copyCells());
+        }
+    }
+
+    @Test
+    void tileIndexFollowsEveryKindOfReveal() {
+        for (int seed = 0; seed < 10; seed++) {
+            Board board = new Board(150, 130);
+            board.placeMines(2000, new Random(seed), MinePlacement.FLOYD);
+            board.enableTileIndex();
+            Random rng = new Random(seed);
+            board.moveMineAway(75, 65, rng);
+            IntList batch = new IntList(16);
+            for (int k = 0; k < 300; k++) {
+                int i = rng.nextInt(board.getTotalCells());
+                if (board.isMine(i)) continue;
+                if (k % 3 == 0) batch.add(i);
+                else board.reveal(i / 130, i % 130);
+            }
+            board.revealAll(batch);
+
+            TileIndex tiles = board.tiles();
+            assertEquals(3, tiles.tileRows());
+            assertEquals(3, tiles.tileCols());
+            int total = 0;
+            for (int tr = 0; tr < 3; tr++) {
+                for (int tc = 0; tc < 3; tc++) {
+                    int hidden = 0, mines = 0;
+                    for (int r = tr * 64; r < Math.min(150, tr * 64 + 64); r++) {
+                        for (int c = tc * 64; c < Math.min(130, tc * 64 + 64); c++) {
+                            int i = board.index(r, c);
+                            if (board.isMine(i)) mines++;
+                            else if (!board.isRevealed(i)) hidden++;
+                        }
+                    }
+                    assertEquals(hidden, tiles.remainingSafe(tr, tc));
+                    assertEquals(mines, tiles.mineCount(tr, tc));
+                    total += hidden;
+                }
+            }
+            assertEquals(total, tiles.remainingSafe());
+            assertEquals(board.getTotalCells() - 2000 - board.getRevealedCount(), total);
+
+            tiles.revealMines(board);
+            for (int i = 0; i < board.getTotalCells(); i++) {
+                if (board.isMine(i)) assertTrue(board.isRevealed(i));
+            }
+        }
+    }
+
+    // a wall of mines down column 32 splits the board into two equal open halves
+    private static Board splitBoard() {
+        Board board = new Board(64);
+        for (int r = 0; r < 64; r++) board.cell(r, 32).setAMine(true);
+        board.computeAdjacents();
+        return board;
+    }
+
 }
@@ -0,0 +1,168 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+class CommandReaderTest {
+
+    private static CommandReader reader(String input) {
+        return new CommandReader(Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    //hands out one byte per read, so every token is split across reads
+    private static ReadableByteChannel trickle(String input) {
+        final byte[] data = input.getBytes(StandardCharsets.UTF_8);
+        return new ReadableByteChannel() {
+            private int next;
+
+            @Override
+            public int read(ByteBuffer dst) {
+                if (next == data.length) return -1;
+                dst.put(data[next++]);
+                return 1;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Test
+    void parsesPipelinedMoves() throws IOException {
+        CommandReader in = reader("A1 !b2\t*C3\r\nAA10 A1,,B2,\n");
+        assertEquals(CommandReader.REVEAL, in.next(30, 30));
+        assertEquals(0, in.row());
+        assertEquals(0, in.col());
+        assertEquals(CommandReader.FLAG, in.next(30, 30));
+        assertEquals(1, in.row());
+        assertEquals(1, in.col());
+        assertEquals(CommandReader.CHORD, in.next(30, 30));
+        assertEquals(2, in.row());
+        assertEquals(2, in.col());
+        assertEquals(CommandReader.REVEAL, in.next(30, 30));
+        assertEquals(26, in.row());
+        assertEquals(9, in.col());
+        assertEquals(CommandReader.BATCH, in.next(30, 30));
+        assertEquals(2, in.squares().size());
+        assertEquals(0, in.squares().get(0));
+        assertEquals(31, in.squares().get(1));
+        assertThrows(NoSuchElementException.class, () -> in.next(30, 30));
+    }
+
+    @Test
+    void movesSplitAcrossReadsAndLongTokensAreCompleted() throws IOException {
+        StringBuilder batch = new StringBuilder("A1");
+        for (int c = 2; c <= 40; c++) {
+            batch.append(",A").append(c);
+        }
+        CommandReader in = new CommandReader(trickle("ntp10000 " + batch + " B7"), 16);
+        assertEquals(CommandReader.REVEAL, in.next(10000, 10000));
+        assertEquals(9999, in.row());
+        assertEquals(9999, in.col());
+        assertEquals(CommandReader.BATCH, in.next(10000, 10000));
+        assertEquals(40, in.squares().size());
+        assertEquals(39, in.squares().get(39));
+        assertEquals(CommandReader.REVEAL, in.next(10000, 10000));
+        assertEquals(1, in.row());
+        assertEquals(6, in.col());
+    }
+
+    @Test
+    void errorsMatchCoordinateMapper() throws IOException {
+        String[] bad = {"A", "1A", "Z9", "A0", "A-1", "A+", "A99999999999", "AA1", "ZZZZZZZZZZZZ1", "A1x", "\u00e91", "A\u00e9"};
+        for (String token : bad) {
+            IllegalArgumentException expected = assertThrows(IllegalArgumentException.class,
+                () -> CoordinateMapper.parse(token, 5));
+            IllegalArgumentException actual = assertThrows(IllegalArgumentException.class,
+                () -> reader(token).next(5, 5), token);
+            assertEquals(expected.getMessage(), actual.getMessage(), token);
+        }
+        assertEquals("Invalid coordinate: ", assertThrows(IllegalArgumentException.class,
+            () -> reader("!").next(5, 5)).getMessage());
+        assertEquals("Invalid coordinate: ,,", assertThrows(IllegalArgumentException.class,
+            () -> reader(",,").next(5, 5)).getMessage());
+        assertEquals("Column must be a number", assertThrows(IllegalArgumentException.class,
+            () -> reader("!A1,B2").next(5, 5)).getMessage());
+    }
+
+    @Test
+    void badMoveIsConsumed() throws IOException {
+        CommandReader in = reader("Z9 B2");
+        assertThrows(IllegalArgumentException.class, () -> in.next(5, 5));
+        assertEquals(CommandReader.REVEAL, in.next(5, 5));
+        assertEquals(1, in.row());
+    }
+
+    @Test
+    void numbersAndLines() throws IOException {
+        CommandReader in = reader("abc 12\n\nyes\n-7 ");
+        assertThrows(NumberFormatException.class, in::nextInt);
+        assertEquals(12, in.nextInt());
+        in.skipLine();
+        in.skipLine();
+        in.skipLine();
+        assertEquals(-7, in.nextInt());
+        in.skipLine();
+        assertThrows(NoSuchElementException.class, in::skipLine);
+    }
+
+    @Test
+    void nonBlockingChannelReturnsNoneUntilMoveIsComplete() throws IOException {
+        Pipe pipe = Pipe.open();
+        pipe.source().configureBlocking(false);
+        CommandReader in = new CommandReader(pipe.source());
+        assertEquals(CommandReader.NONE, in.next(5, 5));
+        pipe.sink().write(ByteBuffer.wrap("C".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(CommandReader.NONE, in.next(5, 5));
+        pipe.sink().write(ByteBuffer.wrap("4 D5\n".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(CommandReader.REVEAL, in.next(5, 5));
+        assertEquals(2, in.row());
+        assertEquals(3, in.col());
+        assertEquals(CommandReader.REVEAL, in.next(5, 5));
+        assertEquals(3, in.row());
+        assertEquals(CommandReader.NONE, in.next(5, 5));
+        pipe.sink().close();
+        assertThrows(NoSuchElementException.class, () -> in.next(5, 5));
+        pipe.source().close();
+    }
+
+    @Test
+    void nextIntWaitsOnANonBlockingChannel() throws Exception {
+        Pipe pipe = Pipe.open();
+        pipe.source().configureBlocking(false);
+        CommandReader in = new CommandReader(pipe.source());
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                pipe.sink().write(ByteBuffer.wrap("1".getBytes(StandardCharsets.US_ASCII)));
+                Thread.sleep(50);
+                pipe.sink().write(ByteBuffer.wrap("2\n".getBytes(StandardCharsets.US_ASCII)));
+                pipe.sink().close();
+            } catch (Exception ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+        writer.start();
+        assertEquals(12, in.nextInt());
+        writer.join();
+        in.skipLine();
+        assertThrows(NoSuchElementException.class, in::skipLine);
+        in.close();
+        pipe.source().close();
+    }
+}
@@ -0,0 +1,148 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+
+class ConcurrentBoardTest {
+
+    @Test
+    void overlappingFloodFillsKeepRevealedCountExact() throws Exception {
+        for (int round = 0; round < 5; round++) {
+            Board board = new Board(200, 200);
+            board.placeMines(400, new Random(round), MinePlacement.FLOYD);
+            ConcurrentBoard shared = new ConcurrentBoard(board);
+
+            int threads = 8;
+            CyclicBarrier start = new CyclicBarrier(threads);
+            List<Thread> players = new ArrayList<Thread>();
+            List<Throwable> failures = new ArrayList<Throwable>();
+            for (int t = 0; t < threads; t++) {
+                final long seed = round * 100L + t;
+                Thread player = new Thread(() -> {
+                    try {
+                        Random rng = new Random(seed);
+                        start.await();
+                        for (int k = 0; k < 2000; k++) {
+                            shared.reveal(rng.nextInt(200), rng.nextInt(200));
+                        }
+                    } catch (Throwable ex) {
+                        synchronized (failures) {
+                            failures.add(ex);
+                        }
+                    }
+                });
+                players.add(player);
+                player.start();
+            }
+            for (Thread player : players) player.join();
+            assertTrue(failures.isEmpty(), failures.toString());
+
+            int revealedBits = 0;
+            for (int i = 0; i < shared.getTotalCells(); i++) {
+                if (shared.isRevealed(i)) revealedBits++;
+                // a revealed zero always has all of its neighbours revealed, whoever expanded it
+                if (shared.isRevealed(i) && shared.adjacent(i) == 0) {
+                    int r = i / 200, c = i % 200;
+                    for (int rr = Math.max(0, r - 1); rr <= Math.min(199, r + 1); rr++) {
+                        for (int cc = Math.max(0, c - 1); cc <= Math.min(199, c + 1); cc++) {
+                            assertTrue(shared.isRevealed(rr * 200 + cc));
+                        }
+                    }
+                }
+            }
+            assertEquals(revealedBits, shared.getRevealedCount());
+        }
+    }
+
+    @Test
+    void cooperativePlayersClearTheBoardTogether() throws Exception {
+        Board board = new Board(120, 90);
+        board.placeMines(1500, new Random(3), MinePlacement.FLOYD);
+        ConcurrentBoard shared = new ConcurrentBoard(board);
+        List<Integer> safe = new ArrayList<Integer>();
+        for (int i = 0; i < board.getTotalCells(); i++) {
+            if (!board.isMine(i)) safe.add(i);
+        }
+
+        List<Thread> players = new ArrayList<Thread>();
+        List<Throwable> failures = new ArrayList<Throwable>();
+        for (int t = 0; t < 4; t++) {
+            final int offset = t;
+            Thread player = new Thread(() -> {
+                try {
+                    // every player walks all safe squares, starting at a different point
+                    for (int k = 0; k < safe.size(); k++) {
+                        int i = safe.get((k + offset * safe.size() / 4) % safe.size());
+                        assertFalse(shared.reveal(i / 90, i % 90).hitMine);
+                    }
+                } catch (Throwable ex) {
+                    synchronized (failures) {
+                        failures.add(ex);
+                    }
+                }
+            });
+            players.add(player);
+            player.start();
+        }
+        for (Thread player : players) player.join();
+        assertTrue(failures.isEmpty(), failures.toString());
+
+        assertTrue(shared.allNonMinesRevealed());
+        assertEquals(safe.size(), shared.getRevealedCount());
+    }
+
+    //the same clicks on a Board and on a shared copy of it open the same squares on every topology
+    @Test
+    void floodsFollowTheBoardTopology() {
+        for (Topology topology : Topology.values()) {
+            for (long seed = 0; seed < 5; seed++) {
+                Board board = new Board(24, 31, topology);
+                board.placeMines(50, new Random(seed));
+                ConcurrentBoard shared = new ConcurrentBoard(board);
+                Random rng = new Random(seed + 17);
+                for (int move = 0; move < 40; move++) {
+                    int i = rng.nextInt(board.getTotalCells());
+                    if (board.isMine(i)) continue;
+                    String where = topology + " seed " + seed + " move " + move;
+                    assertSame(board.reveal(i / 31, i % 31), shared.reveal(i / 31, i % 31), where);
+                    for (int j = 0; j < board.getTotalCells(); j++) {
+                        assertEquals(board.isRevealed(j), shared.isRevealed(j), where + " square " + j);
+                    }
+                    assertEquals(board.getRevealedCount(), shared.getRevealedCount(), where);
+                }
+            }
+        }
+    }
+
+    //flags set before sharing and flags placed on the shared board both stop clicks and floods
+    @Test
+    void flaggedSquaresAreNeverRevealed() {
+        Board board = new Board(10, 10);
+        board.setMine(board.index(9, 9), true);
+        board.setTotalMines(1);
+        board.computeAdjacents();
+        board.toggleFlag(0, 5);
+        ConcurrentBoard shared = new ConcurrentBoard(board);
+        assertTrue(shared.isFlagged(5));
+        assertTrue(shared.toggleFlag(5, 0));
+        assertThrows(IllegalArgumentException.class, () -> shared.reveal(5, 0));
+
+        shared.reveal(0, 0);
+        assertFalse(shared.isRevealed(5));
+        assertFalse(shared.isRevealed(50));
+        assertTrue(shared.isRevealed(board.index(4, 4)));
+        //everything but the mine and the two flags
+        assertEquals(97, shared.getRevealedCount());
+        assertThrows(IllegalArgumentException.class, () -> shared.toggleFlag(4, 4));
+
+        //unflagged, the square is clicked like any other; it is a zero, so nothing more opens
+        assertFalse(shared.toggleFlag(0, 5));
+        assertSame(Board.RevealResult.safe(0), shared.reveal(0, 5));
+        assertEquals(98, shared.getRevealedCount());
+    }
+}
@@ -21,4 +21,28 @@ class CoordTest {
         assertThrows(IllegalArgumentException.class, () -> CoordinateMapper.parse("Z9", 5));
         assertThrows(IllegalArgumentException.class, () -> CoordinateMapper.parse("A", 5));
     }
+
+    @Test
+    void parsesMultiLetterRows() {
+        CoordinateMapper c = CoordinateMapper.parse("AA1", 100);
+        assertEquals(26, c.row);
+        assertEquals(0, c.col);
+        CoordinateMapper d = CoordinateMapper.parse("ntp10000", 16384, 10000);
+        assertEquals(9999, d.row);
+        assertEquals(9999, d.col);
+        assertThrows(IllegalArgumentException.class, () -> CoordinateMapper.parse("AA1", 26));
+        assertThrows(IllegalArgumentException.class, () -> CoordinateMapper.parse("ZZZZZZZZZZZZ1", 100));
+    }
+
+    @Test
+    void rowLabelIsInverseOfParse() {
+        assertEquals("A", CoordinateMapper.rowLabel(0));
+        assertEquals("Z", CoordinateMapper.rowLabel(25));
+        assertEquals("AA", CoordinateMapper.rowLabel(26));
+        assertEquals("ZZ", CoordinateMapper.rowLabel(701));
+        assertEquals("AAA", CoordinateMapper.rowLabel(702));
+        for (int r = 0; r < Board.MAX_SIDE; r += 97) {
+            assertEquals(r, CoordinateMapper.parse(CoordinateMapper.rowLabel(r) + "1", Board.MAX_SIDE).row);
+        }
+    }
 }
@@ -0,0 +1,63 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+
+class GameServerTest {
+
+    @Test
+    void loadGeneratorPlaysGamesAgainstServer() throws Exception {
+        try (GameServer server = new GameServer(0, 50, 10000, 16)) {
+            server.start();
+            LoadGenerator.Report report = LoadGenerator.run("localhost", server.getPort(), 20, 2, 5, 3);
+
+            assertEquals(0, report.failedSessions);
+            assertTrue(report.latenciesNanos.length >= 40, "at least one move per game");
+            assertTrue(report.percentileNanos(50) <= report.percentileNanos(99));
+        }
+    }
+
+    @Test
+    void refusesSessionsBeyondCapAndDropsIdleOnes() throws Exception {
+        try (GameServer server = new GameServer(0, 1, 300, 16)) {
+            server.start();
+            try (Socket first = new Socket("localhost", server.getPort())) {
+                assertTrue(readUntil(first.getInputStream(), "Enter the size").contains("Welcome"));
+                try (Socket second = new Socket("localhost", server.getPort())) {
+                    assertTrue(readUntil(second.getInputStream(), null).contains(GameServer.BUSY_MESSAGE));
+                }
+                assertEquals(1, server.rejectedSessions());
+
+                // first player never answers: the idle timeout ends the session and frees the slot
+                assertTrue(readUntil(first.getInputStream(), null).contains("Goodbye!"));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (server.activeSessions() > 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+            assertEquals(0, server.activeSessions());
+        }
+    }
+
+    @Test
+    void platformThreadsCapTheSessionLimit() throws Exception {
+        try (GameServer server = new GameServer(0, 20000, 300, 16)) {
+            int expected = VirtualThreads.available() ? 20000 : VirtualThreads.PLATFORM_THREADS;
+            assertEquals(expected, server.maxSessions());
+        }
+    }
+
+    //reads until the text appears (or, with null, until the server closes the connection)
+    private static String readUntil(InputStream in, String until) throws IOException {
+        ByteArrayOutputStream seen = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            seen.write(b);
+            if (until != null && seen.toString().contains(until)) break;
+        }
+        return seen.toString();
+    }
+}
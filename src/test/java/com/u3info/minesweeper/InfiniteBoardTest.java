@@ -0,0 +1,86 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InfiniteBoardTest {
+
+    @Test
+    void sameSeedGivesSameMinesAndCountsAgreeAcrossChunkEdges() {
+        InfiniteBoard a = new InfiniteBoard(7L, 0.2, 4, 10_000);
+        InfiniteBoard b = new InfiniteBoard(7L, 0.2, 64, 10_000);
+        //straddles the chunk corner at (0, 0) including negative coordinates
+        for (int r = -70; r < 70; r++) {
+            for (int c = -70; c < 70; c++) {
+                assertEquals(a.isMine(r, c), b.isMine(r, c));
+                if (a.isMine(r, c)) continue;
+                int expected = 0;
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        if ((dr != 0 || dc != 0) && b.isMine(r + dr, c + dc)) expected++;
+                    }
+                }
+                assertEquals(expected, a.adjacent(r, c), "square " + r + "," + c);
+            }
+        }
+        assertTrue(a.liveChunks() <= 4);
+    }
+
+    @Test
+    void evictedChunksKeepTheirRevealedSquares() {
+        InfiniteBoard board = new InfiniteBoard(3L, 0.15, 2, 1_000_000);
+        int opened = 0;
+        for (int k = 0; k < 10; k++) {
+            int r = k * InfiniteBoard.CHUNK * 3, c = -k * InfiniteBoard.CHUNK * 5;
+            if (!board.isMine(r, c)) {
+                board.reveal(r, c);
+                opened++;
+            }
+        }
+        assertTrue(opened > 0);
+        assertTrue(board.liveChunks() <= 2);
+        assertTrue(board.parkedChunks() > 0);
+        for (int k = 0; k < 10; k++) {
+            int r = k * InfiniteBoard.CHUNK * 3, c = -k * InfiniteBoard.CHUNK * 5;
+            assertEquals(!board.isMine(r, c), board.isRevealed(r, c));
+        }
+    }
+
+    @Test
+    void floodFillCrossesChunksAndStopsAtTheLimit() {
+        InfiniteBoard board = new InfiniteBoard(11L, 0.05, 8, 5_000);
+        int r = 0, c = 0;
+        while (board.adjacent(r, c) != 0) c++;
+        Board.RevealResult first = board.reveal(r, c);
+        assertFalse(first.hitMine);
+        long afterFirst = board.getRevealedCount();
+        assertTrue(afterFirst > InfiniteBoard.CHUNK_CELLS, "sparse zero region should leave the first chunk");
+        // the clicked square plus exactly maxFloodCells more
+        assertEquals(5_001, afterFirst);
+
+        assertTrue(board.reveal(r, c).already);
+        assertEquals(afterFirst, board.getRevealedCount());
+    }
+
+    //a fill cut off by the limit leaves open zeros with hidden neighbours; clicking one carries on
+    @Test
+    void clickingTheEdgeOfACutOffFillContinuesIt() {
+        InfiniteBoard board = new InfiniteBoard(11L, 0.05, 64, 2_000);
+        int c = 0;
+        while (board.adjacent(0, c) != 0) c++;
+        board.reveal(0, c);
+        long before = board.getRevealedCount();
+
+        int[] edge = null;
+        for (int r = -200; r <= 200 && edge == null; r++) {
+            for (int cc = c - 200; cc <= c + 200 && edge == null; cc++) {
+                if (board.isRevealed(r, cc) && board.adjacent(r, cc) == 0 && !board.isRevealed(r, cc + 1)) {
+                    edge = new int[] {r, cc};
+                }
+            }
+        }
+        assertNotNull(edge);
+        assertTrue(board.reveal(edge[0], edge[1]).already);
+        assertTrue(board.getRevealedCount() > before);
+    }
+}
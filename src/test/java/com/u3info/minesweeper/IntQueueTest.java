@@ -0,0 +1,20 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntQueueTest {
+
+    @Test
+    void keepsFifoOrderWhenGrowingAcrossTheWrapPoint() {
+        IntQueue q = new IntQueue(16);
+        for (int i = 0; i < 10; i++) q.add(i);
+        for (int i = 0; i < 10; i++) assertEquals(i, q.poll());
+
+        // head now sits in the middle of the buffer, so these wrap and then force a resize
+        for (int i = 0; i < 40; i++) q.add(i);
+        assertEquals(40, q.size());
+        for (int i = 0; i < 40; i++) assertEquals(i, q.poll());
+        assertTrue(q.isEmpty());
+    }
+}
@@ -0,0 +1,294 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Random;
+
+class JournaledGameTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoversFromLatestSnapshotPlusJournalTail() throws IOException {
+        Board expected;
+        try (MoveJournal journal = new MoveJournal(dir, 5)) {
+            JournaledGame game = JournaledGame.start(journal, 7L, 60, 60, 200, 123L, 25);
+            Random rng = new Random(1);
+            while (game.moves() < 58) {
+                int i = rng.nextInt(3600);
+                if (!game.board().isMine(i)) game.reveal(i / 60, i % 60);
+            }
+            expected = game.board();
+        }
+        assertTrue(Files.exists(dir.resolve("game-7-50.snap")));
+        assertFalse(Files.exists(dir.resolve("game-7-25.snap")));
+
+        // a crash in the middle of a write leaves a partial record behind
+        Files.write(dir.resolve("game-7.journal"), new byte[]{MoveJournal.REVEAL, 0, 0}, StandardOpenOption.APPEND);
+
+        try (MoveJournal journal = new MoveJournal(dir, 5)) {
+            JournaledGame recovered = JournaledGame.recover(journal, 7L, 25);
+            assertEquals(58, recovered.moves());
+            assertSameState(expected, recovered.board());
+
+            // the reopened journal keeps growing from where the game stopped
+            int next = firstHidden(recovered.board());
+            recovered.reveal(next / 60, next % 60);
+            journal.commit();
+            assertEquals(MoveJournal.HEADER_BYTES + 59 * MoveJournal.RECORD_BYTES,
+                Files.size(dir.resolve("game-7.journal")));
+        }
+    }
+
+    @Test
+    void replaysFromSeedWhenThereIsNoSnapshot() throws IOException {
+        Board expected;
+        long expectedMoves;
+        try (MoveJournal journal = new MoveJournal(dir, 1000)) {
+            JournaledGame game = JournaledGame.start(journal, 1L, 16, 30, 99, 5L, 1000);
+            for (int k = 0; k < 6; k++) {
+                int i = firstHidden(game.board());
+                game.reveal(i / 30, i % 30);
+            }
+            // flag every mine around some revealed number, then chord on it
+            Board board = game.board();
+            int number = 0;
+            while (!board.isRevealed(number) || board.adjacent(number) <= 0) number++;
+            int r = number / 30, c = number % 30;
+            for (int nr = Math.max(0, r - 1); nr <= Math.min(15, r + 1); nr++) {
+                for (int nc = Math.max(0, c - 1); nc <= Math.min(29, c + 1); nc++) {
+                    if (board.isMine(nr * 30 + nc) && !board.isFlagged(nr * 30 + nc)) game.toggleFlag(nr, nc);
+                }
+            }
+            assertFalse(game.chord(r, c).hitMine);
+            expected = game.board();
+            expectedMoves = game.moves();
+        }
+        try (MoveJournal journal = new MoveJournal(dir, 1000)) {
+            JournaledGame recovered = JournaledGame.recover(journal, 1L, 1000);
+            assertEquals(expectedMoves, recovered.moves());
+            assertSameState(expected, recovered.board());
+        }
+    }
+
+    @Test
+    void failedCommitsKeepTheirRecords() throws IOException {
+        Path file = dir.resolve("flaky.journal");
+        try (FlakyChannel channel = new FlakyChannel(FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+            MoveJournal.GameLog log = new MoveJournal.GameLog(channel);
+            for (int k = 0; k < 3; k++) log.add(MoveJournal.REVEAL, k);
+
+            // the disk gives out in the middle of the second record
+            channel.writeBudget = 7;
+            assertThrows(IOException.class, log::commit);
+            for (int k = 3; k < 5; k++) log.add(MoveJournal.FLAG, k);
+            channel.writeBudget = -1;
+            log.commit();
+            assertRecords(file, 5);
+
+            // the records reach the file but the fsync fails: it is repeated, the records are not
+            log.add(MoveJournal.CHORD, 5);
+            channel.failForce = true;
+            assertThrows(IOException.class, log::commit);
+            channel.failForce = false;
+            int forces = channel.forces;
+            log.commit();
+            assertEquals(forces + 1, channel.forces);
+            assertRecords(file, 6);
+        }
+    }
+
+    @Test
+    void oneFailingGameDoesNotStopTheOthers() throws Exception {
+        MoveJournal journal = new MoveJournal(dir, 60_000);
+        journal.create(1L, 9, 9, 10, MinePlacement.FLOYD, 1L);
+        journal.create(3L, 9, 9, 10, MinePlacement.FLOYD, 3L);
+        FlakyChannel channel = new FlakyChannel(FileChannel.open(dir.resolve("flaky.journal"), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+        Field logs = MoveJournal.class.getDeclaredField("logs");
+        logs.setAccessible(true);
+        @SuppressWarnings("unchecked")
+        Map<Long, MoveJournal.GameLog> open = (Map<Long, MoveJournal.GameLog>) logs.get(journal);
+        open.put(2L, new MoveJournal.GameLog(channel));
+
+        for (long game = 1; game <= 3; game++) journal.append(game, MoveJournal.REVEAL, 0);
+        channel.failForce = true;
+        assertThrows(IOException.class, journal::commit);
+        assertNotNull(journal.lastFailure(2L));
+        assertNull(journal.lastFailure(1L));
+        assertNull(journal.lastFailure(3L));
+        for (long game : new long[] {1L, 3L}) {
+            assertEquals(MoveJournal.HEADER_BYTES + MoveJournal.RECORD_BYTES, Files.size(journal.journalFile(game)));
+        }
+
+        // close still closes every game, then reports the one that failed
+        journal.append(1L, MoveJournal.FLAG, 4);
+        IOException failure = assertThrows(IOException.class, journal::close);
+        assertEquals("Input/output error", failure.getMessage());
+        assertFalse(channel.isOpen());
+        assertEquals(2, MoveJournal.read(journal.journalFile(1L)).moves());
+    }
+
+    @Test
+    void rejectsAnUnknownPlacementInTheHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(MoveJournal.HEADER_BYTES);
+        header.putInt(MoveJournal.MAGIC).putInt(MoveJournal.VERSION).putInt(9).putInt(9).putInt(10)
+            .putInt(MinePlacement.values().length).putLong(1L);
+        Path file = dir.resolve("corrupt.journal");
+        Files.write(file, header.array());
+        IOException ex = assertThrows(IOException.class, () -> MoveJournal.read(file));
+        assertTrue(ex.getMessage().contains("Unknown mine placement"));
+    }
+
+    //records k = 0..moves-1 with square k, in order and without duplicates
+    private static void assertRecords(Path file, int moves) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(moves * MoveJournal.RECORD_BYTES, data.remaining());
+        for (int k = 0; k < moves; k++) {
+            data.get();
+            assertEquals(k, data.getInt());
+        }
+    }
+
+    //a file channel whose writes stop after writeBudget bytes (-1: never) and whose force can fail
+    private static final class FlakyChannel extends FileChannel {
+        private final FileChannel file;
+        int writeBudget = -1;
+        boolean failForce;
+        int forces;
+
+        FlakyChannel(FileChannel file) {
+            this.file = file;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (writeBudget == 0) throw new IOException("No space left on device");
+            if (writeBudget < 0 || src.remaining() <= writeBudget) {
+                int n = file.write(src);
+                if (writeBudget > 0) writeBudget -= n;
+                return n;
+            }
+            ByteBuffer part = src.duplicate();
+            part.limit(part.position() + writeBudget);
+            int n = file.write(part);
+            src.position(src.position() + n);
+            writeBudget -= n;
+            return n;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            forces++;
+            if (failForce) throw new IOException("Input/output error");
+            file.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return file.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return file.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() throws IOException {
+            return file.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            file.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return file.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            file.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return file.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return file.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return file.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return file.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            file.close();
+        }
+    }
+
+    private static int firstHidden(Board board) {
+        for (int i = 0; i < board.getTotalCells(); i++) {
+            if (!board.isMine(i) && !board.isRevealed(i)) return i;
+        }
+        throw new AssertionError("board already cleared");
+    }
+
+    private static void assertSameState(Board expected, Board actual) {
+        assertEquals(expected.getRevealedCount(), actual.getRevealedCount());
+        for (int i = 0; i < expected.getTotalCells(); i++) {
+            assertEquals(expected.isMine(i), actual.isMine(i));
+            assertEquals(expected.isRevealed(i), actual.isRevealed(i));
+            assertEquals(expected.isFlagged(i), actual.isFlagged(i));
+        }
+    }
+}
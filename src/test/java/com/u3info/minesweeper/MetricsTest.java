@@ -0,0 +1,68 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+class MetricsTest {
+
+    @Test
+    void histogramPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random rng = new Random(3);
+        long[] values = new long[100_000];
+        for (int k = 0; k < values.length; k++) {
+            // log-uniform from 1 ns to about 1 s, like real latencies
+            values[k] = (long) Math.pow(10, rng.nextDouble() * 9);
+            histogram.record(values[k]);
+        }
+        Arrays.sort(values);
+        for (double p : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(p * values.length) - 1];
+            long reported = histogram.percentile(p);
+            assertTrue(reported >= exact, p + ": " + reported + " < " + exact);
+            assertTrue(reported <= exact + exact / 16 + 1, p + ": " + reported + " vs " + exact);
+        }
+        assertEquals(values.length, histogram.count());
+        assertEquals(values[values.length - 1], histogram.max());
+        assertEquals(values[values.length - 1], histogram.percentile(1.0));
+    }
+
+    @Test
+    void bucketsCoverTheWholeRange() {
+        for (long v : new long[]{0, 15, 16, 17, 31, 32, 1000, Long.MAX_VALUE}) {
+            int b = LatencyHistogram.bucket(v);
+            assertTrue(LatencyHistogram.upperEdge(b) >= v);
+            if (b > 0) assertTrue(LatencyHistogram.upperEdge(b - 1) < v);
+        }
+    }
+
+    @Test
+    void dumpsAreWellFormed() {
+        String json = Metrics.INSTANCE.toJson();
+        assertTrue(json.startsWith("{\"moves\":") && json.endsWith("}}"), json);
+        assertTrue(json.contains("\"flood\":{\"count\":"));
+        assertTrue(Metrics.INSTANCE.toText().startsWith("moves="));
+        // tests run without -Dminesweeper.metrics, so nothing is registered or recorded
+        assertFalse(Metrics.ENABLED);
+        assertNull(Metrics.startIfEnabled(System.err));
+    }
+
+    @Test
+    void dumpsReadTheIntervalRateWithoutResettingIt() throws Exception {
+        Metrics.MOVES.add(1000);
+        Thread.sleep(5);
+        Metrics.INSTANCE.closeInterval();
+        double rate = Metrics.INSTANCE.intervalMovesPerSecond();
+        assertTrue(rate > 0);
+
+        // more moves and more dumps in between leave the closed interval as it was
+        Metrics.MOVES.add(1000);
+        String text = Metrics.INSTANCE.toText();
+        Metrics.INSTANCE.toJson();
+        assertEquals(text, Metrics.INSTANCE.toText());
+        assertEquals(rate, Metrics.INSTANCE.intervalMovesPerSecond());
+    }
+}
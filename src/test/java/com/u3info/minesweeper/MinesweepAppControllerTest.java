@@ -13,7 +13,9 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.lang.reflect.Method;
-import java.util.Scanner;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
 
 @ExtendWith(MockitoExtension.class)
 class MinesweepAppControllerTest {
@@ -54,15 +56,15 @@ class MinesweepAppControllerTest {
     void promptIntReturnsValidValue() throws Exception {
         MinesweepAppController controller = new MinesweepAppController();
         String input = "5\n";
-        Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
+        CommandReader commands = new CommandReader(Channels.newChannel(new ByteArrayInputStream(input.getBytes())));
         ByteArrayOutputStream output = new ByteArrayOutputStream();
         PrintStream printStream = new PrintStream(output);
 
         Method promptIntMethod = MinesweepAppController.class.getDeclaredMethod(
-            "promptInt", Scanner.class, PrintStream.class, String.class, int.class, int.class);
+            "promptInt", CommandReader.class, PrintStream.class, String.class, int.class, int.class);
         promptIntMethod.setAccessible(true);
 
-        int result = (int) promptIntMethod.invoke(controller, scanner, printStream, "Test prompt:", 1, 10);
+        int result = (int) promptIntMethod.invoke(controller, commands, printStream, "Test prompt:", 1, 10);
         
         assertEquals(5, result);
         String outputStr = output.toString();
@@ -73,15 +75,15 @@ class MinesweepAppControllerTest {
     void promptIntRejectsInvalidInput() throws Exception {
         MinesweepAppController controller = new MinesweepAppController();
         String input = "abc\n0\n15\n7\n";
-        Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
+        CommandReader commands = new CommandReader(Channels.newChannel(new ByteArrayInputStream(input.getBytes())));
         ByteArrayOutputStream output = new ByteArrayOutputStream();
         PrintStream printStream = new PrintStream(output);
 
         Method promptIntMethod = MinesweepAppController.class.getDeclaredMethod(
-            "promptInt", Scanner.class, PrintStream.class, String.class, int.class, int.class);
+            "promptInt", CommandReader.class, PrintStream.class, String.class, int.class, int.class);
         promptIntMethod.setAccessible(true);
 
-        int result = (int) promptIntMethod.invoke(controller, scanner, printStream, "Test:", 1, 10);
+        int result = (int) promptIntMethod.invoke(controller, commands, printStream, "Test:", 1, 10);
         
         assertEquals(7, result);
         String outputStr = output.toString();
@@ -93,15 +95,15 @@ class MinesweepAppControllerTest {
     void setupBoardCreatesValidBoard() throws Exception {
         MinesweepAppController controller = new MinesweepAppController();
         String input = "4\n2\n";
-        Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
+        CommandReader commands = new CommandReader(Channels.newChannel(new ByteArrayInputStream(input.getBytes())));
         ByteArrayOutputStream output = new ByteArrayOutputStream();
         PrintStream printStream = new PrintStream(output);
 
         Method setupBoardMethod = MinesweepAppController.class.getDeclaredMethod(
-            "setupBoard", Scanner.class, PrintStream.class);
+            "setupBoard", CommandReader.class, PrintStream.class);
         setupBoardMethod.setAccessible(true);
 
-        Board board = (Board) setupBoardMethod.invoke(controller, scanner, printStream);
+        Board board = (Board) setupBoardMethod.invoke(controller, commands, printStream);
         
         assertNotNull(board);
         assertEquals(4, board.getSize());
@@ -114,6 +116,24 @@ class MinesweepAppControllerTest {
         assertTrue(outputStr.contains("Here is your minefield:"));
     }
 
+    @Test
+    void onlyLargeBoardsKeepATileIndex() throws Exception {
+        MinesweepAppController controller = new MinesweepAppController(false, Board.MAX_SIDE);
+        Method setupBoardMethod = MinesweepAppController.class.getDeclaredMethod(
+            "setupBoard", CommandReader.class, PrintStream.class);
+        setupBoardMethod.setAccessible(true);
+        PrintStream printStream = new PrintStream(new ByteArrayOutputStream());
+
+        int large = MinesweepAppController.TILE_INDEX_MIN_SIZE;
+        String input = "4\n2\n" + large + "\n10\n";
+        CommandReader commands = new CommandReader(Channels.newChannel(new ByteArrayInputStream(input.getBytes())));
+
+        Board small = (Board) setupBoardMethod.invoke(controller, commands, printStream);
+        assertNull(small.tiles());
+        Board big = (Board) setupBoardMethod.invoke(controller, commands, printStream);
+        assertNotNull(big.tiles());
+    }
+
     @Test
     void revealAllMinesWorksCorrectly() throws Exception {
         MinesweepAppController controller = new MinesweepAppController();
@@ -149,4 +169,61 @@ class MinesweepAppControllerTest {
         assertEquals(2, revealedMines);
     }
 
+    @Test
+    void safeFirstClickNeverDetonates() {
+        // 2x2 with one mine: without the safe start A1 would be a mine in a quarter of the games
+        for (int game = 0; game < 40; game++) {
+            MinesweepAppController safe = new MinesweepAppController(false, Board.MAX_SIDE, true);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            safe.run(new ByteArrayInputStream("2\n1\nA1\n".getBytes()), new PrintStream(output));
+
+            String outputStr = output.toString();
+            assertFalse(outputStr.contains("detonated"));
+            assertTrue(outputStr.contains("This square contains 1 adjacent mines."));
+        }
+    }
+
+    @Test
+    void flagAndBatchMovesAreAccepted() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new MinesweepAppController().run(
+            new ByteArrayInputStream("3\n1\n!B2\n!B2\n!Z9\nA1,,C4\n".getBytes()), new PrintStream(output));
+
+        String outputStr = output.toString();
+        assertTrue(outputStr.contains("Flag placed."));
+        assertTrue(outputStr.contains("Flag removed."));
+        assertTrue(outputStr.contains("Invalid input: Row out of range"));
+        assertTrue(outputStr.contains("Invalid input: Column out of range"));
+        assertTrue(outputStr.contains("Goodbye!"));
+    }
+
+    //moves trickle into a non-blocking channel; the game has to wait for each one, not replay the last
+    @Test
+    void playsFromANonBlockingChannel() throws Exception {
+        Pipe pipe = Pipe.open();
+        pipe.source().configureBlocking(false);
+        Thread writer = new Thread(() -> {
+            try {
+                for (String part : new String[] {"3\n", "1\n", "!B", "2\n", "!B2\n"}) {
+                    Thread.sleep(20);
+                    pipe.sink().write(ByteBuffer.wrap(part.getBytes()));
+                }
+                pipe.sink().close();
+            } catch (Exception ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+        writer.start();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new MinesweepAppController().run(pipe.source(), new PrintStream(output));
+        writer.join();
+        pipe.source().close();
+
+        String outputStr = output.toString();
+        assertEquals(1, outputStr.split("Flag placed.", -1).length - 1);
+        assertEquals(1, outputStr.split("Flag removed.", -1).length - 1);
+        assertFalse(outputStr.contains("adjacent mines"));
+        assertFalse(outputStr.contains("Invalid input"));
+        assertTrue(outputStr.contains("Goodbye!"));
+    }
 }
@@ -0,0 +1,79 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+class MinesweepViewRendererTest {
+
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    void rendersSameFrameAsPerSquarePrinting() {
+        Board board = new Board(3);
+        board.cell(0, 0).setAMine(true);
+        board.computeAdjacents();
+        board.cell(0, 0).setRevealed(true);
+        board.cell(1, 1).setRevealed(true);
+        board.cell(2, 2).setRevealed(true);
+
+        String expected =
+            "  1 2 3" + NL +
+            "A * _ _" + NL +
+            "B _ 1 _" + NL +
+            "C _ _ 0" + NL +
+            NL;
+        assertEquals(expected, render(new MinesweepViewRenderer(), board));
+    }
+
+    @Test
+    void reusesBufferAcrossBoardsOfDifferentSizes() {
+        MinesweepViewRenderer renderer = new MinesweepViewRenderer();
+        Board large = new Board(28, 12);
+        large.reveal(27, 11);
+        String frame = render(renderer, large);
+        String[] lines = frame.split(NL);
+        assertEquals("   1 2 3 4 5 6 7 8 9 10 11 12", lines[0]);
+        assertEquals("A  0 0 0 0 0 0 0 0 0 0 0 0", lines[1]);
+        assertEquals("AB 0 0 0 0 0 0 0 0 0 0 0 0", lines[28]);
+
+        Board small = new Board(2);
+        assertEquals("  1 2" + NL + "A _ _" + NL + "B _ _" + NL + NL, render(renderer, small));
+    }
+
+    @Test
+    void printChangesListsOnlyWhatTheLastMoveUncovered() {
+        Board board = new Board(3, 4);
+        board.cell(0, 3).setAMine(true);
+        board.computeAdjacents();
+        board.setChangeTracking(true);
+        MinesweepViewRenderer renderer = new MinesweepViewRenderer();
+
+        board.reveal(0, 2);
+        assertEquals("A3=1" + NL, renderChanges(renderer, board));
+
+        board.reveal(2, 0);
+        String line = renderChanges(renderer, board).trim();
+        assertTrue(line.startsWith("C1=0 "), line);
+        assertEquals(10, line.split(" ").length);
+        assertFalse(line.contains("A3="));
+        assertFalse(line.contains("A4="));
+
+        board.reveal(2, 0);
+        assertEquals(NL, renderChanges(renderer, board));
+    }
+
+    private static String renderChanges(MinesweepViewRenderer renderer, Board board) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        renderer.printChanges(board, new PrintStream(bytes));
+        return bytes.toString();
+    }
+
+    private static String render(MinesweepViewRenderer renderer, Board board) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        renderer.printBoard(board, new PrintStream(bytes));
+        return bytes.toString();
+    }
+}
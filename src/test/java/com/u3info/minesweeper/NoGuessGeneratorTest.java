@@ -0,0 +1,45 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class NoGuessGeneratorTest {
+
+    @Test
+    void generatedBoardsClearWithoutGuessingAndIgnoreWorkerCount() {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (long seed = 0; seed < 5; seed++) {
+                NoGuessGenerator.Result one = new NoGuessGenerator(pool, 1).generate(16, 16, 40, 7, 7, seed, 10_000);
+                NoGuessGenerator.Result four = new NoGuessGenerator(pool, 4).generate(16, 16, 40, 7, 7, seed, 10_000);
+                assertEquals(one.attempt, four.attempt);
+                assertArrayEquals(one.board.copyCells(), four.board.copyCells());
+
+                Board board = one.board;
+                assertEquals(0, board.getRevealedCount());
+                assertEquals(40, board.getTotalMines());
+                assertEquals(0, board.adjacent(board.index(7, 7)));
+                Solver fresh = new Solver(board);
+                assertTrue(NoGuessGenerator.solvable(board, fresh, 7, 7, 0, new AtomicInteger(Integer.MAX_VALUE)));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsMineCountsThatDoNotLeaveRoomForTheFirstClick() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            NoGuessGenerator generator = new NoGuessGenerator(pool, 2);
+            assertThrows(IllegalArgumentException.class, () -> generator.generate(4, 4, 8, 1, 1, 1L, 10));
+            assertThrows(IllegalArgumentException.class, () -> generator.generate(4, 4, 2, 4, 1, 1L, 10));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
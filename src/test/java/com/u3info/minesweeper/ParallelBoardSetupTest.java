@@ -0,0 +1,67 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+class ParallelBoardSetupTest {
+
+    @Test
+    void sameSeedAndStripesGiveSameBoardOnAnyPool() {
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            Board a = new Board(97, 61);
+            Board b = new Board(97, 61);
+            new ParallelBoardSetup(one).placeMines(a, 2000, 5L, 7);
+            new ParallelBoardSetup(four).placeMines(b, 2000, 5L, 7);
+
+            int mines = 0;
+            for (int i = 0; i < a.getTotalCells(); i++) {
+                assertEquals(a.isMine(i), b.isMine(i));
+                assertEquals(a.storedAdjacent(i), b.storedAdjacent(i));
+                if (a.isMine(i)) mines++;
+            }
+            assertEquals(2000, mines);
+            assertEquals(2000, a.getTotalMines());
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    @Test
+    void stripeBoundariesGetTheSameCountsAsAFullPass() {
+        Board board = new Board(50, 40);
+        new ParallelBoardSetup(ForkJoinPool.commonPool()).placeMines(board, Board.maxMines(50, 40), 11L, 9);
+        int[] striped = new int[board.getTotalCells()];
+        for (int i = 0; i < striped.length; i++) striped[i] = board.storedAdjacent(i);
+
+        board.computeAdjacents();
+        for (int i = 0; i < striped.length; i++) {
+            assertEquals(board.storedAdjacent(i), striped[i], "cell " + i);
+        }
+    }
+
+    @Test
+    void rebuildsTheBoardsIndexes() {
+        Board board = new Board(64, 48);
+        board.enableTileIndex();
+        board.enableZeroRegions();
+        new ParallelBoardSetup(ForkJoinPool.commonPool()).placeMines(board, 300, 3L, 5);
+
+        TileIndex fresh = TileIndex.build(board);
+        assertEquals(fresh.remainingSafe(), board.tiles().remainingSafe());
+        for (int tr = 0; tr < fresh.tileRows(); tr++) {
+            for (int tc = 0; tc < fresh.tileCols(); tc++) {
+                assertEquals(fresh.mineCount(tr, tc), board.tiles().mineCount(tr, tc));
+            }
+        }
+        ZeroRegions regions = ZeroRegions.build(board);
+        assertEquals(regions.count(), board.zeroRegions().count());
+        for (int i = 0; i < board.getTotalCells(); i++) {
+            assertEquals(regions.regionOf(i), board.zeroRegions().regionOf(i));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class SolverTest {
+
+    @Test
+    void singleCellRuleFindsTheLastMine() {
+        Board board = new Board(3, 3);
+        board.setMine(board.index(0, 0), true);
+        board.setTotalMines(1);
+        board.computeAdjacents();
+        board.reveal(2, 2);
+
+        Solver solver = new Solver(board);
+        assertTrue(solver.isKnownMine(board.index(0, 0)));
+        assertEquals(1, solver.mines().size());
+        assertEquals(1.0, solver.probability(board.index(0, 0)));
+    }
+
+    @Test
+    void subsetRuleSettlesWhatSingleNumbersCannot() {
+        //mines at A1 and A4 under a revealed row B reading 1 1 1 1. No number settles anything
+        //alone, but B1 {A1, A2} sits inside B2 {A1, A2, A3} with the same count, so A3 is safe,
+        //and B4 {A3, A4} inside B3 {A2, A3, A4} makes A2 safe; the mines follow from those
+        Board board = new Board(3, 4);
+        board.setMine(board.index(0, 0), true);
+        board.setMine(board.index(0, 3), true);
+        board.setTotalMines(2);
+        board.computeAdjacents();
+        for (int c = 0; c < 4; c++) {
+            board.setRevealed(board.index(1, c), true);
+            board.setRevealed(board.index(2, c), true);
+        }
+        board.setRevealedCount(8);
+
+        Solver solver = new Solver(board, 0);
+        assertTrue(solver.isKnownSafe(board.index(0, 1)));
+        assertTrue(solver.isKnownSafe(board.index(0, 2)));
+        assertTrue(solver.isKnownMine(board.index(0, 0)));
+        assertTrue(solver.isKnownMine(board.index(0, 3)));
+    }
+
+    @Test
+    void enumerationGivesFiftyFiftyOnAnUnsolvablePair() {
+        //one mine hidden under two squares that every number sees together
+        Board board = new Board(2, 2);
+        board.setMine(board.index(0, 0), true);
+        board.setTotalMines(1);
+        board.computeAdjacents();
+        board.reveal(1, 0);
+        board.reveal(1, 1);
+
+        Solver solver = new Solver(board);
+        assertEquals(0.5, solver.probability(board.index(0, 0)), 1e-6);
+        assertEquals(0.5, solver.probability(board.index(0, 1)), 1e-6);
+        assertEquals(0, solver.mines().size());
+    }
+
+    @Test
+    void incrementalDeductionsAreAlwaysRight() {
+        IntList safe = new IntList(16);
+        for (int seed = 0; seed < 40; seed++) {
+            Board board = new Board(16, 16);
+            board.placeMines(40, new Random(seed), MinePlacement.FLOYD);
+            board.setChangeTracking(true);
+            Random rng = new Random(seed);
+            int start;
+            do {
+                start = rng.nextInt(256);
+            } while (board.isMine(start));
+            board.reveal(start / 16, start % 16);
+            Solver solver = new Solver(board);
+
+            while (!board.allNonMinesRevealed()) {
+                for (int k = 0; k < solver.mines().size(); k++) {
+                    assertTrue(board.isMine(solver.mines().get(k)), "seed " + seed);
+                }
+                solver.safeCells(safe);
+                for (int k = 0; k < safe.size(); k++) {
+                    assertFalse(board.isMine(safe.get(k)), "seed " + seed);
+                }
+                for (int i = 0; i < 256; i++) {
+                    double p = solver.probability(i);
+                    assertTrue(p >= 0 && p <= 1);
+                }
+                int move = solver.nextMove();
+                if (board.reveal(move / 16, move % 16).hitMine) break;
+                solver.update(board.lastChanges());
+            }
+        }
+    }
+
+    @Test
+    void solverStrategyWinsFarMoreThanRandomPlay() {
+        List<GameSpec> solved = new ArrayList<GameSpec>();
+        List<GameSpec> random = new ArrayList<GameSpec>();
+        for (int g = 0; g < 100; g++) {
+            solved.add(GameSpec.played(9, 9, 10, g, MoveStrategy.SOLVER));
+            random.add(GameSpec.played(9, 9, 10, g, MoveStrategy.RANDOM));
+        }
+        BatchStats withSolver = new BatchRunner(2).run(solved);
+        BatchStats withRandom = new BatchRunner(2).run(random);
+        assertTrue(withSolver.won > 60, withSolver.toString());
+        assertTrue(withSolver.won > withRandom.won * 3, withSolver + " vs " + withRandom);
+    }
+}
@@ -0,0 +1,147 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+class TopologyTest {
+
+    private static int[] sorted(IntList list) {
+        int[] out = new int[list.size()];
+        for (int k = 0; k < out.length; k++) out[k] = list.get(k);
+        Arrays.sort(out);
+        return out;
+    }
+
+    private static int[] fromTable(NeighbourTable table, int r, int c, int cols) {
+        int shape = table.shape(r, c);
+        int[] out = new int[table.start[shape + 1] - table.start[shape]];
+        for (int k = 0; k < out.length; k++) out[k] = r * cols + c + table.offsets[table.start[shape] + k];
+        Arrays.sort(out);
+        return out;
+    }
+
+    @Test
+    void tableMatchesDefinitionOnEverySquare() {
+        int[][] sizes = {{1, 1}, {1, 6}, {2, 2}, {2, 3}, {3, 5}, {4, 4}, {7, 9}, {12, 5}};
+        IntList expected = new IntList(8);
+        for (Topology topology : Topology.values()) {
+            for (int[] size : sizes) {
+                int rows = size[0], cols = size[1];
+                NeighbourTable table = NeighbourTable.build(topology, rows, cols);
+                for (int r = 0; r < rows; r++) {
+                    for (int c = 0; c < cols; c++) {
+                        topology.neighbours(r, c, rows, cols, expected);
+                        assertArrayEquals(sorted(expected), fromTable(table, r, c, cols),
+                            topology + " " + rows + "x" + cols + " at " + r + "," + c);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void neighbourhoodsOfEachTopology() {
+        IntList out = new IntList(8);
+        Topology.SQUARE.neighbours(0, 0, 5, 5, out);
+        assertEquals(3, out.size());
+        Topology.TOROIDAL.neighbours(0, 0, 5, 5, out);
+        assertArrayEquals(new int[]{1, 4, 5, 6, 9, 20, 21, 24}, sorted(out));
+        //odd row: the hexes above and below are in columns c and c + 1
+        Topology.HEXAGONAL.neighbours(1, 1, 5, 5, out);
+        assertArrayEquals(new int[]{1, 2, 5, 7, 11, 12}, sorted(out));
+        Topology.HEXAGONAL.neighbours(2, 1, 5, 5, out);
+        assertArrayEquals(new int[]{5, 6, 10, 12, 15, 16}, sorted(out));
+        Topology.KNIGHT.neighbours(0, 0, 5, 5, out);
+        assertArrayEquals(new int[]{7, 11}, sorted(out));
+        Topology.KNIGHT.neighbours(2, 2, 5, 5, out);
+        assertEquals(8, out.size());
+    }
+
+    @Test
+    void countsMatchNeighbourDefinition() {
+        IntList around = new IntList(8);
+        for (Topology topology : Topology.values()) {
+            Board incremental = new Board(23, 17, topology);
+            incremental.placeMines(80, new Random(5), MinePlacement.FLOYD, AdjacencyPass.INCREMENTAL);
+            Board batch = new Board(23, 17, topology);
+            batch.placeMines(80, new Random(5), MinePlacement.FLOYD, AdjacencyPass.SLIDING_WINDOW);
+            assertArrayEquals(incremental.copyCells(), batch.copyCells(), topology.toString());
+            for (int r = 0; r < 23; r++) {
+                for (int c = 0; c < 17; c++) {
+                    topology.neighbours(r, c, 23, 17, around);
+                    int mines = 0;
+                    for (int k = 0; k < around.size(); k++) {
+                        if (batch.isMine(around.get(k))) mines++;
+                    }
+                    assertEquals(mines, batch.storedAdjacent(batch.index(r, c)), topology + " at " + r + "," + c);
+                }
+            }
+        }
+    }
+
+    @Test
+    void toroidalFloodWrapsAroundTheEdges() {
+        Board board = new Board(5, 5, Topology.TOROIDAL);
+        board.setMine(board.index(2, 2), true);
+        board.setTotalMines(1);
+        board.computeAdjacents();
+        //on a torus every square of the ring around the mine touches it, everything else is 0
+        assertEquals(1, board.adjacent(board.index(1, 1)));
+        assertEquals(0, board.adjacent(board.index(0, 0)));
+        board.reveal(0, 0);
+        assertTrue(board.allNonMinesRevealed());
+
+        Board flat = new Board(5, 5);
+        flat.setMine(flat.index(2, 2), true);
+        flat.setTotalMines(1);
+        flat.computeAdjacents();
+        flat.reveal(0, 0);
+        assertTrue(flat.allNonMinesRevealed());
+        flat.resetReveals();
+        flat.reveal(4, 4);
+        assertTrue(flat.allNonMinesRevealed());
+    }
+
+    @Test
+    void firstClickIsSafeOnEveryTopology() {
+        for (Topology topology : Topology.values()) {
+            for (long seed = 0; seed < 20; seed++) {
+                Board board = new Board(12, 12, topology);
+                board.placeMinesAvoiding(40, new Random(seed), 5, 6);
+                Board.RevealResult res = board.reveal(5, 6);
+                assertFalse(res.hitMine, topology.toString());
+                assertEquals(0, res.adjacent, topology.toString());
+            }
+        }
+    }
+
+    @Test
+    void chordAndMoveMineUseTheTopology() {
+        Board board = new Board(5, 5, Topology.KNIGHT);
+        board.setMine(board.index(0, 0), true);
+        board.setTotalMines(1);
+        board.computeAdjacents();
+        //(1, 2) is a knight's move from the mine, (1, 1) is not
+        assertEquals(1, board.adjacent(board.index(1, 2)));
+        assertEquals(0, board.adjacent(board.index(1, 1)));
+
+        board.reveal(1, 2);
+        board.toggleFlag(0, 0);
+        Board.MoveSummary summary = board.chord(1, 2);
+        assertFalse(summary.hitMine);
+        assertTrue(summary.opened > 0);
+
+        Board moved = new Board(5, 5, Topology.HEXAGONAL);
+        moved.placeMines(8, new Random(3));
+        int mine = 0;
+        while (!moved.isMine(mine)) mine++;
+        moved.moveMineAway(mine / 5, mine % 5, new Random(4));
+        Board recount = new Board(5, 5, Topology.HEXAGONAL);
+        for (int i = 0; i < 25; i++) recount.setMine(i, moved.isMine(i));
+        recount.computeAdjacents();
+        assertArrayEquals(recount.copyCells(), moved.copyCells());
+    }
+}
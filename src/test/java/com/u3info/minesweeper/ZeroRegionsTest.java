@@ -0,0 +1,141 @@
+package com.u3info.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.Random;
+
+class ZeroRegionsTest {
+
+    @Test
+    void labelsRegionsAndBorders() {
+        //mine at C3 on a 5x5 board: the outer ring is one zero region, the 8 squares around the mine its border
+        Board board = new Board(5, 5);
+        board.setMine(board.index(2, 2), true);
+        board.setTotalMines(1);
+        board.computeAdjacents();
+        board.enableZeroRegions();
+        ZeroRegions regions = board.zeroRegions();
+        assertEquals(1, regions.count());
+        assertEquals(16, regions.size(0));
+        assertEquals(8, regions.borderSize(0));
+        assertEquals(0, regions.regionOf(0));
+        assertEquals(-1, regions.regionOf(board.index(1, 1)));
+        assertEquals(-1, regions.regionOf(board.index(2, 2)));
+
+        //a wall of mines down column C splits the zeros in two
+        Board split = new Board(6, 7);
+        for (int r = 0; r < 6; r++) split.setMine(split.index(r, 3), true);
+        split.setTotalMines(6);
+        split.computeAdjacents();
+        split.enableZeroRegions();
+        assertEquals(2, split.zeroRegions().count());
+        assertNotEquals(split.zeroRegions().regionOf(0), split.zeroRegions().regionOf(6));
+    }
+
+    //the same clicks and flags on an indexed board and a plain one must leave identical boards
+    @Test
+    void revealsMatchTheFloodFill() {
+        for (Topology topology : Topology.values()) {
+            for (long seed = 0; seed < 15; seed++) {
+                int rows = 20 + (int) seed, cols = 31;
+                Board plain = new Board(rows, cols, topology);
+                Board indexed = new Board(rows, cols, topology);
+                int mines = rows * cols * (3 + (int) (seed % 3) * 4) / 100;
+                plain.placeMines(mines, new Random(seed));
+                indexed.enableZeroRegions();
+                indexed.placeMines(mines, new Random(seed));
+                plain.setChangeTracking(true);
+                indexed.setChangeTracking(true);
+
+                Random rng = new Random(seed + 99);
+                for (int move = 0; move < 60 && !plain.allNonMinesRevealed(); move++) {
+                    int r = rng.nextInt(rows), c = rng.nextInt(cols), i = plain.index(r, c);
+                    String where = topology + " seed " + seed + " move " + move;
+                    if (plain.isRevealed(i)) continue;
+                    if (rng.nextInt(6) == 0) {
+                        plain.toggleFlag(r, c);
+                        indexed.toggleFlag(r, c);
+                        continue;
+                    }
+                    if (plain.isMine(i) || plain.isFlagged(i)) continue;
+                    assertSame(plain.reveal(r, c), indexed.reveal(r, c), where);
+                    assertArrayEquals(plain.copyCells(), indexed.copyCells(), where);
+                    assertEquals(plain.getRevealedCount(), indexed.getRevealedCount(), where);
+                    assertEquals(plain.lastChanges().size(), indexed.lastChanges().size(), where);
+                }
+            }
+        }
+    }
+
+    @Test
+    void followsMovedMinesAndWorksWithTheBitboard() {
+        Board board = new Board(16, 16);
+        board.enableZeroRegions();
+        board.setFloodFill(FloodFill.BITBOARD);
+        board.placeMines(40, new Random(2));
+        int mine = 0;
+        while (!board.isMine(mine)) mine++;
+        board.moveMineAway(mine / 16, mine % 16, new Random(3));
+
+        Board expected = new Board(16, 16);
+        for (int i = 0; i < 256; i++) expected.setMine(i, board.isMine(i));
+        expected.setTotalMines(40);
+        expected.computeAdjacents();
+        for (int i = 0; i < 256; i++) {
+            if (expected.adjacent(i) != 0 || expected.isRevealed(i)) continue;
+            expected.reveal(i / 16, i % 16);
+            board.reveal(i / 16, i % 16);
+        }
+        assertArrayEquals(expected.copyCells(), board.copyCells());
+    }
+
+    //moving mines only marks the index stale; it is relabelled once, when next asked for
+    @Test
+    void relabelsLazilyAfterMinesMove() {
+        Board board = new Board(16, 16);
+        board.enableZeroRegions();
+        board.placeMines(40, new Random(4));
+        ZeroRegions placed = board.zeroRegions();
+        assertSame(placed, board.zeroRegions());
+
+        Random rng = new Random(5);
+        for (int moved = 0, i = 0; moved < 3; i++) {
+            if (board.moveMineAway(i / 16, i % 16, rng)) moved++;
+        }
+        ZeroRegions relabelled = board.zeroRegions();
+        assertNotSame(placed, relabelled);
+        assertSame(relabelled, board.zeroRegions());
+        ZeroRegions fresh = ZeroRegions.build(board);
+        assertEquals(fresh.count(), relabelled.count());
+        for (int i = 0; i < 256; i++) assertEquals(fresh.regionOf(i), relabelled.regionOf(i));
+    }
+
+    //after a moved mine the click floods without the index rather than rebuilding it
+    @Test
+    void aMovedMineNeverCostsTheNextClickARebuild() throws Exception {
+        Board board = new Board(16, 16);
+        board.enableZeroRegions();
+        board.placeMines(30, new Random(6));
+        Field field = Board.class.getDeclaredField("zeroRegions");
+        field.setAccessible(true);
+        Object labelled = field.get(board);
+
+        int mine = 0;
+        while (!board.isMine(mine)) mine++;
+        assertTrue(board.moveMineAway(mine / 16, mine % 16, new Random(7)));
+        Board plain = new Board(16, 16);
+        for (int i = 0; i < 256; i++) plain.setMine(i, board.isMine(i));
+        plain.setTotalMines(30);
+        plain.computeAdjacents();
+        board.reveal(mine / 16, mine % 16);
+        plain.reveal(mine / 16, mine % 16);
+        assertArrayEquals(plain.copyCells(), board.copyCells());
+        assertSame(labelled, field.get(board));
+
+        // the next game on the layout relabels up front
+        board.resetReveals();
+        assertNotSame(labelled, field.get(board));
+    }
+}